@@ -3,8 +3,23 @@ package com.homework.backend.config;
 import com.homework.backend.config.props.FrontendProperties;
 import com.homework.backend.config.props.JwtProperties;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
 
 @Configuration
 @EnableConfigurationProperties({JwtProperties.class, FrontendProperties.class})
-public class AppConfig {}
+public class AppConfig {
+
+    /**
+     * ETag calculé sur le corps des listes du catalogue : une page inchangée est renvoyée en 304 sans corps.
+     * Les fiches (/courses/{id}) ont leur propre ETag, fondé sur la version du cours.
+     */
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> catalogEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration = new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/courses", "/courses/all");
+        return registration;
+    }
+}
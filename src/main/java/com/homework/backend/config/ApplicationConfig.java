@@ -1,32 +1,80 @@
 package com.homework.backend.config;
 
+import com.homework.backend.config.props.CourseCacheProperties;
+import com.homework.backend.config.props.CourseImportProperties;
+import com.homework.backend.config.props.CourseSuggestProperties;
+import com.homework.backend.config.props.EmailOutboxProperties;
+import com.homework.backend.config.props.EnrollmentCompletionProperties;
 import com.homework.backend.config.props.FrontendProperties;
 import com.homework.backend.config.props.JwtProperties;
+import com.homework.backend.config.props.MailExecutorProperties;
+import com.homework.backend.config.props.PasswordHashingProperties;
+import com.homework.backend.config.props.RateLimitProperties;
+import com.homework.backend.config.props.SeatHoldProperties;
 import com.homework.backend.config.props.StripeProperties;
+import com.homework.backend.config.props.UserCacheProperties;
+import com.homework.backend.config.props.VerificationTokenPurgeProperties;
+import com.homework.backend.config.props.WaitlistProperties;
 import com.homework.backend.repositories.UserRepository;
+import com.homework.backend.services.CachedUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @Configuration
-@EnableConfigurationProperties({FrontendProperties.class, JwtProperties.class, StripeProperties.class})
+@EnableConfigurationProperties({FrontendProperties.class, JwtProperties.class, StripeProperties.class, UserCacheProperties.class, PasswordHashingProperties.class, RateLimitProperties.class, VerificationTokenPurgeProperties.class, EmailOutboxProperties.class, MailExecutorProperties.class, CourseCacheProperties.class, CourseSuggestProperties.class, CourseImportProperties.class, SeatHoldProperties.class, WaitlistProperties.class, EnrollmentCompletionProperties.class})
 public class ApplicationConfig {
 
+    private static final Logger log = LoggerFactory.getLogger(ApplicationConfig.class);
+
     @Bean
-    public UserDetailsService userDetailsService(UserRepository userRepository) {
-        return username -> userRepository.findByEmail(username)
-                .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé avec l'email : " + username));
+    public CachedUserDetailsService userDetailsService(UserRepository userRepository,
+                                                      UserCacheProperties userCacheProperties,
+                                                      MeterRegistry meterRegistry) {
+        return new CachedUserDetailsService(
+                username -> userRepository.findByEmail(username)
+                        .orElseThrow(() -> new UsernameNotFoundException("Utilisateur non trouvé avec l'email : " + username)),
+                userCacheProperties,
+                meterRegistry
+        );
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(PasswordHashingProperties passwordHashingProperties) {
+        return new BCryptPasswordEncoder(calibrateBCryptStrength(passwordHashingProperties));
+    }
+
+    /**
+     * Choisit le coût BCrypt le plus élevé dont un hachage reste sous la durée visée sur cette machine.
+     * Les hashs existants de coût inférieur sont ré-encodés à la connexion suivante.
+     */
+    private static int calibrateBCryptStrength(PasswordHashingProperties properties) {
+        long targetNanos = properties.getTargetDuration().toNanos();
+        int strength = properties.getMinStrength();
+
+        // Premier hachage pour chauffer le JIT, non mesuré
+        new BCryptPasswordEncoder(strength).encode("calibration");
+
+        for (int candidate = properties.getMinStrength(); candidate <= properties.getMaxStrength(); candidate++) {
+            long start = System.nanoTime();
+            new BCryptPasswordEncoder(candidate).encode("calibration");
+            long elapsed = System.nanoTime() - start;
+            if (elapsed > targetNanos) {
+                break;
+            }
+            strength = candidate;
+        }
+
+        log.info("Coût BCrypt calibré à {} (cible {} ms)", strength, properties.getTargetDuration().toMillis());
+        return strength;
     }
 
     @Bean
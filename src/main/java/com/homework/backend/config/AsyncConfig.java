@@ -1,24 +1,19 @@
 package com.homework.backend.config;
 
+import com.homework.backend.config.props.MailExecutorProperties;
+import com.homework.backend.services.MailExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
-import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
-
-import java.util.concurrent.Executor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
 
-    @Bean(name = "emailExecutor")
-    public Executor emailExecutor() {
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(2);        // 2 threads minimum
-        executor.setMaxPoolSize(5);         // 5 max
-        executor.setQueueCapacity(100);     // File d'attente
-        executor.setThreadNamePrefix("Email-"); // Debug
-        executor.initialize();
-        return executor;
+    // Envois SMTP de l'outbox : threads virtuels, concurrence bornée (voir mail.executor.*)
+    @Bean(destroyMethod = "close")
+    public MailExecutor mailExecutor(MailExecutorProperties properties, MeterRegistry meterRegistry) {
+        return new MailExecutor(properties, meterRegistry);
     }
 }
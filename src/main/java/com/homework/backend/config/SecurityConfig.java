@@ -14,6 +14,12 @@ import org.springframework.security.config.annotation.web.configurers.AbstractHt
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.header.writers.CacheControlHeadersWriter;
+import org.springframework.security.web.header.writers.DelegatingRequestMatcherHeaderWriter;
+import org.springframework.security.web.servlet.util.matcher.PathPatternRequestMatcher;
+import org.springframework.security.web.util.matcher.NegatedRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -66,6 +72,8 @@ public class SecurityConfig {
                         .requestMatchers("/ws/**").permitAll()
                         .requestMatchers(HttpMethod.GET, "/courses", "/courses/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/enrollments").hasAuthority("STUDENT")
+                        .requestMatchers(HttpMethod.POST, "/courses/*/waitlist").hasAuthority("STUDENT")
+                        .requestMatchers(HttpMethod.DELETE, "/courses/*/waitlist").hasAuthority("STUDENT")
                         .requestMatchers(HttpMethod.GET, "/enrollments/my-courses").hasAuthority("STUDENT")
                         .requestMatchers(HttpMethod.POST, "/payments/intent").hasAuthority("STUDENT")
                         .requestMatchers(HttpMethod.POST, "/payments/confirm").hasAuthority("STUDENT")
@@ -74,12 +82,28 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.GET, "/profile/**", "/conversations/**", "/chat/**").hasAnyAuthority("STUDENT", "TEACHER")
                         .anyRequest().authenticated()
                 )
+                // Le catalogue public fixe son propre Cache-Control (CourseController) ; le reste garde "no-store"
+                .headers(headers -> headers
+                        .cacheControl(cacheControl -> cacheControl.disable())
+                        .addHeaderWriter(new DelegatingRequestMatcherHeaderWriter(
+                                new NegatedRequestMatcher(publicCatalogRoutes()), new CacheControlHeadersWriter())))
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
                 .addFilterBefore(jwtAuthFilter, UsernamePasswordAuthenticationFilter.class);
 
         return http.build();
     }
 
+    // /courses/courses (cours du formateur connecté) est exclu : réponse propre à l'utilisateur
+    private static RequestMatcher publicCatalogRoutes() {
+        PathPatternRequestMatcher.Builder matcher = PathPatternRequestMatcher.withDefaults();
+        return new OrRequestMatcher(
+                matcher.matcher(HttpMethod.GET, "/courses"),
+                matcher.matcher(HttpMethod.GET, "/courses/all"),
+                matcher.matcher(HttpMethod.GET, "/courses/suggest"),
+                matcher.matcher(HttpMethod.GET, "/courses/{id:\\d+}")
+        );
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
@@ -108,6 +132,9 @@ public class SecurityConfig {
                 "Access-Control-Request-Headers"
         ));
 
+        // Total des listes paginées renvoyées sous forme de tableau (GET /enrollments/my-courses)
+        configuration.setExposedHeaders(List.of("X-Total-Count"));
+
         configuration.setAllowCredentials(true);
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         source.registerCorsConfiguration("/**", configuration);
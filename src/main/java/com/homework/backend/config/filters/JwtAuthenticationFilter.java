@@ -2,6 +2,7 @@
 package com.homework.backend.config.filters;
 
 import com.homework.backend.services.JwtService;
+import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.ExpiredJwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -13,7 +14,6 @@ import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -26,11 +26,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final JwtPrincipalResolver principalResolver;
 
-    public JwtAuthenticationFilter(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtAuthenticationFilter(JwtService jwtService, JwtPrincipalResolver principalResolver) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.principalResolver = principalResolver;
     }
 
     @Override
@@ -59,15 +59,17 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         try {
-            // On extrait l'email (sujet) du token
-            final String userEmail = jwtService.extractUsername(jwt);
+            // On vérifie le token une seule fois (signature + expiration) et on récupère ses claims
+            final Claims claims = jwtService.parseVerifiedClaims(jwt);
+            final String userEmail = claims.getSubject();
 
             // Si on a un email et que l'utilisateur n'est pas déjà authentifié
             if (userEmail != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(userEmail);
+                // Principal rechargé depuis la base ou construit depuis les claims (jwt.auth-mode)
+                UserDetails userDetails = principalResolver.resolve(claims);
 
                 // Si le token est valide pour cet utilisateur
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (userDetails != null) {
                     // On crée l'objet d'authentification
                     UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
                             userDetails,
@@ -1,6 +1,7 @@
 package com.homework.backend.config.filters;
 
 import com.homework.backend.services.JwtService;
+import io.jsonwebtoken.Claims;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.lang.NonNull;
@@ -13,7 +14,6 @@ import org.springframework.messaging.support.MessageHeaderAccessor;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
 
@@ -23,11 +23,11 @@ public class JwtChannelInterceptor implements ChannelInterceptor {
     private static final Logger logger = LoggerFactory.getLogger(JwtChannelInterceptor.class);
 
     private final JwtService jwtService;
-    private final UserDetailsService userDetailsService;
+    private final JwtPrincipalResolver principalResolver;
 
-    public JwtChannelInterceptor(JwtService jwtService, UserDetailsService userDetailsService) {
+    public JwtChannelInterceptor(JwtService jwtService, JwtPrincipalResolver principalResolver) {
         this.jwtService = jwtService;
-        this.userDetailsService = userDetailsService;
+        this.principalResolver = principalResolver;
     }
 
     @Override
@@ -46,12 +46,13 @@ public class JwtChannelInterceptor implements ChannelInterceptor {
 
             try {
                 String jwt = authorizationHeader.substring(7);
-                String userEmail = jwtService.extractUsername(jwt);
+                Claims claims = jwtService.parseVerifiedClaims(jwt);
+                String userEmail = claims.getSubject();
 
                 if (userEmail != null) {
-                    UserDetails userDetails = userDetailsService.loadUserByUsername(userEmail);
+                    UserDetails userDetails = principalResolver.resolve(claims);
 
-                    if (jwtService.isTokenValid(jwt, userDetails)) {
+                    if (userDetails != null) {
                         UsernamePasswordAuthenticationToken authentication =
                                 new UsernamePasswordAuthenticationToken(
                                         userDetails,
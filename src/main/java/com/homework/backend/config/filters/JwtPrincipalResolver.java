@@ -0,0 +1,49 @@
+package com.homework.backend.config.filters;
+
+import com.homework.backend.config.props.JwtProperties;
+import com.homework.backend.services.JwtService;
+import com.homework.backend.services.TokenVersionService;
+import io.jsonwebtoken.Claims;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+
+/**
+ * Transforme des claims JWT déjà vérifiés en principal Spring Security,
+ * selon le mode configuré par jwt.auth-mode. Partagé par le filtre HTTP et l'intercepteur STOMP.
+ */
+@Component
+public class JwtPrincipalResolver {
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+    private final TokenVersionService tokenVersionService;
+    private final JwtProperties jwtProperties;
+
+    public JwtPrincipalResolver(JwtService jwtService,
+                                UserDetailsService userDetailsService,
+                                TokenVersionService tokenVersionService,
+                                JwtProperties jwtProperties) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenVersionService = tokenVersionService;
+        this.jwtProperties = jwtProperties;
+    }
+
+    /**
+     * @return le principal authentifié, ou null si le token n'est plus valide pour ce compte
+     */
+    public UserDetails resolve(Claims claims) {
+        if (jwtProperties.getAuthMode() == JwtProperties.AuthMode.CLAIMS) {
+            // Mode sans état : pas de chargement de l'utilisateur, seule la version des tokens est contrôlée
+            boolean current = tokenVersionService.isCurrent(
+                    jwtService.extractUserId(claims),
+                    jwtService.extractTokenVersion(claims)
+            );
+            return current ? jwtService.buildPrincipal(claims) : null;
+        }
+
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        return jwtService.isTokenValid(claims, userDetails) ? userDetails : null;
+    }
+}
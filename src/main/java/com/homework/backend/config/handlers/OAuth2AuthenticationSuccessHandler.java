@@ -3,7 +3,8 @@ package com.homework.backend.config.handlers;
 import com.homework.backend.models.Role;
 import com.homework.backend.models.User;
 import com.homework.backend.repositories.UserRepository;
-import com.homework.backend.services.JwtService;
+import com.homework.backend.services.CachedUserDetailsService;
+import com.homework.backend.services.RefreshTokenService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -20,13 +21,15 @@ import java.util.UUID;
 @Component
 public class OAuth2AuthenticationSuccessHandler implements AuthenticationSuccessHandler {
 
-    private final JwtService jwtService;
     private final UserRepository userRepository;
+    private final CachedUserDetailsService userDetailsService;
+    private final RefreshTokenService refreshTokenService;
     private final String frontendRedirectUrl;
 
-    public OAuth2AuthenticationSuccessHandler(JwtService jwtService, UserRepository userRepository, @Value("${frontend.url}") String frontendRedirectUrl) {
-        this.jwtService = jwtService;
+    public OAuth2AuthenticationSuccessHandler(UserRepository userRepository, CachedUserDetailsService userDetailsService, RefreshTokenService refreshTokenService, @Value("${frontend.url}") String frontendRedirectUrl) {
         this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.refreshTokenService = refreshTokenService;
         this.frontendRedirectUrl = frontendRedirectUrl;
     }
 
@@ -44,13 +47,17 @@ public class OAuth2AuthenticationSuccessHandler implements AuthenticationSuccess
                     newUser.setRole(Role.STUDENT);
                     newUser.setPassword(UUID.randomUUID().toString());
 
-                    return userRepository.save(newUser);
+                    User savedUser = userRepository.save(newUser);
+                    userDetailsService.evict(email);
+                    return savedUser;
                 });
 
-        String token = jwtService.generateToken(user);
+        // Pas de token dans l'URL (historique, journaux, Referer) : un code court, à usage unique,
+        // que le frontend échange par POST /auth/oauth2/token
+        String code = refreshTokenService.issueLoginCode(user);
 
         String targetUrl = UriComponentsBuilder.fromUriString(frontendRedirectUrl + "/oauth/redirect")
-                .queryParam("token", token)
+                .queryParam("code", code)
                 .build().toUriString();
 
         response.sendRedirect(targetUrl);
@@ -0,0 +1,71 @@
+package com.homework.backend.config.props;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "courses.cache")
+@Validated
+public class CourseCacheProperties {
+
+    @Min(0)
+    private long maxSize = 5_000;
+
+    // Borne la durée pendant laquelle une autre instance peut servir une fiche modifiée
+    @NotNull
+    private Duration ttl = Duration.ofMinutes(2);
+
+    @Min(0)
+    private long searchMaxSize = 2_000;
+
+    // Filet de sécurité : l'invalidation passe par la version du catalogue
+    @NotNull
+    private Duration searchTtl = Duration.ofSeconds(30);
+
+    // max-age des réponses publiques du catalogue ; au-delà, le client revalide avec son ETag
+    @NotNull
+    private Duration httpMaxAge = Duration.ofSeconds(10);
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public long getSearchMaxSize() {
+        return searchMaxSize;
+    }
+
+    public void setSearchMaxSize(long searchMaxSize) {
+        this.searchMaxSize = searchMaxSize;
+    }
+
+    public Duration getSearchTtl() {
+        return searchTtl;
+    }
+
+    public void setSearchTtl(Duration searchTtl) {
+        this.searchTtl = searchTtl;
+    }
+
+    public Duration getHttpMaxAge() {
+        return httpMaxAge;
+    }
+
+    public void setHttpMaxAge(Duration httpMaxAge) {
+        this.httpMaxAge = httpMaxAge;
+    }
+}
@@ -0,0 +1,36 @@
+package com.homework.backend.config.props;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@ConfigurationProperties(prefix = "courses.import")
+@Validated
+public class CourseImportProperties {
+
+    // Nombre de cours insérés par transaction (envoyés en lots JDBC de hibernate.jdbc.batch_size)
+    @Min(1)
+    @Max(5_000)
+    private int batchSize = 500;
+
+    // Au-delà, la lecture s'arrête et le rapport est marqué tronqué
+    @Min(1)
+    private int maxRows = 10_000;
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxRows() {
+        return maxRows;
+    }
+
+    public void setMaxRows(int maxRows) {
+        this.maxRows = maxRows;
+    }
+}
@@ -0,0 +1,51 @@
+package com.homework.backend.config.props;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "courses.suggest")
+@Validated
+public class CourseSuggestProperties {
+
+    // En dessous, un préfixe couvre trop de termes pour être utile
+    @Min(1)
+    private int minPrefixLength = 2;
+
+    // Aussi la taille des classements gardés par chaque nœud de l'index
+    @Min(1)
+    @Max(50)
+    private int maxResults = 8;
+
+    // Reconstruction complète : rattrape les modifications faites sur les autres instances
+    @NotNull
+    private Duration rebuildInterval = Duration.ofMinutes(30);
+
+    public int getMinPrefixLength() {
+        return minPrefixLength;
+    }
+
+    public void setMinPrefixLength(int minPrefixLength) {
+        this.minPrefixLength = minPrefixLength;
+    }
+
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    public void setMaxResults(int maxResults) {
+        this.maxResults = maxResults;
+    }
+
+    public Duration getRebuildInterval() {
+        return rebuildInterval;
+    }
+
+    public void setRebuildInterval(Duration rebuildInterval) {
+        this.rebuildInterval = rebuildInterval;
+    }
+}
@@ -0,0 +1,106 @@
+package com.homework.backend.config.props;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "mail.outbox")
+@Validated
+public class EmailOutboxProperties {
+
+    private boolean enabled = true;
+
+    // Messages réclamés puis envoyés sur une même connexion SMTP
+    @Min(1)
+    private int batchSize = 50;
+
+    // Nombre maximal de lots traités par passage du dispatcher
+    @Min(1)
+    private int maxBatchesPerRun = 20;
+
+    // Au-delà, un message SENDING est considéré abandonné et repris. Pris à la réclamation, puis repris au début
+    // de l'envoi : doit couvrir l'envoi d'un lot (voir les délais spring.mail.properties.mail.smtp.*)
+    @NotNull
+    private Duration lease = Duration.ofMinutes(2);
+
+    @Min(1)
+    private int maxAttempts = 8;
+
+    // Délai avant la 2e tentative, doublé à chaque échec jusqu'à maxBackoff
+    @NotNull
+    private Duration initialBackoff = Duration.ofSeconds(30);
+
+    @NotNull
+    private Duration maxBackoff = Duration.ofHours(1);
+
+    // Durée de conservation des messages envoyés
+    @NotNull
+    private Duration retention = Duration.ofDays(7);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxBatchesPerRun() {
+        return maxBatchesPerRun;
+    }
+
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+
+    public Duration getLease() {
+        return lease;
+    }
+
+    public void setLease(Duration lease) {
+        this.lease = lease;
+    }
+
+    public int getMaxAttempts() {
+        return maxAttempts;
+    }
+
+    public void setMaxAttempts(int maxAttempts) {
+        this.maxAttempts = maxAttempts;
+    }
+
+    public Duration getInitialBackoff() {
+        return initialBackoff;
+    }
+
+    public void setInitialBackoff(Duration initialBackoff) {
+        this.initialBackoff = initialBackoff;
+    }
+
+    public Duration getMaxBackoff() {
+        return maxBackoff;
+    }
+
+    public void setMaxBackoff(Duration maxBackoff) {
+        this.maxBackoff = maxBackoff;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+}
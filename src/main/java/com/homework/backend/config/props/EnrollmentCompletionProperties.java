@@ -0,0 +1,46 @@
+package com.homework.backend.config.props;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@ConfigurationProperties(prefix = "maintenance.enrollment-completion")
+@Validated
+public class EnrollmentCompletionProperties {
+
+    private boolean enabled = true;
+
+    // Nombre maximal d'inscriptions passées à COMPLETED par transaction
+    @Min(1)
+    @Max(50_000)
+    private int batchSize = 1_000;
+
+    // Borne le nombre de transactions par exécution ; le reste est repris au passage suivant
+    @Min(1)
+    private int maxBatchesPerRun = 100;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public int getMaxBatchesPerRun() {
+        return maxBatchesPerRun;
+    }
+
+    public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+        this.maxBatchesPerRun = maxBatchesPerRun;
+    }
+}
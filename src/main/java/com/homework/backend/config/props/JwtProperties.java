@@ -5,6 +5,9 @@ import org.springframework.validation.annotation.Validated;
 
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Duration;
 
 @ConfigurationProperties(prefix = "jwt")
 @Validated
@@ -15,6 +18,33 @@ public class JwtProperties {
 	@Min(1000)
 	private long expirationMs;
 
+	// Durée de vie des refresh tokens (les tokens d'accès restent courts : jwt.expiration-ms)
+	@NotNull
+	private Duration refreshExpiration = Duration.ofDays(30);
+
+	// Validité du code à usage unique remis au frontend après une connexion Google
+	@NotNull
+	private Duration oauth2CodeTtl = Duration.ofMinutes(1);
+
+	@Min(0)
+	private long claimsCacheMaxSize = 10_000;
+
+	/**
+	 * DATABASE : le principal est rechargé depuis la base à chaque requête.
+	 * CLAIMS : le principal est construit à partir des claims vérifiés du token,
+	 * seule la version des tokens du compte est contrôlée (avec un cache court).
+	 */
+	@NotNull
+	private AuthMode authMode = AuthMode.DATABASE;
+
+	@NotNull
+	private Duration tokenVersionCacheTtl = Duration.ofSeconds(30);
+
+	public enum AuthMode {
+		DATABASE,
+		CLAIMS
+	}
+
 	public String getSecret() {
 		return secret;
 	}
@@ -30,4 +60,44 @@ public class JwtProperties {
 	public void setExpirationMs(long expirationMs) {
 		this.expirationMs = expirationMs;
 	}
+
+	public Duration getRefreshExpiration() {
+		return refreshExpiration;
+	}
+
+	public void setRefreshExpiration(Duration refreshExpiration) {
+		this.refreshExpiration = refreshExpiration;
+	}
+
+	public Duration getOauth2CodeTtl() {
+		return oauth2CodeTtl;
+	}
+
+	public void setOauth2CodeTtl(Duration oauth2CodeTtl) {
+		this.oauth2CodeTtl = oauth2CodeTtl;
+	}
+
+	public long getClaimsCacheMaxSize() {
+		return claimsCacheMaxSize;
+	}
+
+	public void setClaimsCacheMaxSize(long claimsCacheMaxSize) {
+		this.claimsCacheMaxSize = claimsCacheMaxSize;
+	}
+
+	public AuthMode getAuthMode() {
+		return authMode;
+	}
+
+	public void setAuthMode(AuthMode authMode) {
+		this.authMode = authMode;
+	}
+
+	public Duration getTokenVersionCacheTtl() {
+		return tokenVersionCacheTtl;
+	}
+
+	public void setTokenVersionCacheTtl(Duration tokenVersionCacheTtl) {
+		this.tokenVersionCacheTtl = tokenVersionCacheTtl;
+	}
 }
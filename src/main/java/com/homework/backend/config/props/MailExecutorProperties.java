@@ -0,0 +1,58 @@
+package com.homework.backend.config.props;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@ConfigurationProperties(prefix = "mail.executor")
+@Validated
+public class MailExecutorProperties {
+
+    /**
+     * Comportement quand la file d'envoi est pleine.
+     */
+    public enum OverflowPolicy {
+        // Le producteur attend qu'une place se libère
+        BLOCK,
+        // Les messages restent dans l'outbox et seront repris au passage suivant
+        SPILL,
+        // Les messages sont abandonnés (statut FAILED) et comptés
+        DROP
+    }
+
+    // Envois SMTP simultanés au maximum (une connexion par envoi)
+    @Min(1)
+    private int maxConcurrency = 4;
+
+    // Tâches pouvant attendre une connexion libre, au-delà : overflowPolicy
+    @Min(0)
+    private int maxQueued = 16;
+
+    @NotNull
+    private OverflowPolicy overflowPolicy = OverflowPolicy.SPILL;
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public int getMaxQueued() {
+        return maxQueued;
+    }
+
+    public void setMaxQueued(int maxQueued) {
+        this.maxQueued = maxQueued;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+}
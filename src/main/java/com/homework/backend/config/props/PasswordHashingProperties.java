@@ -0,0 +1,85 @@
+package com.homework.backend.config.props;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.password-hashing")
+@Validated
+public class PasswordHashingProperties {
+
+    // Nombre de threads dédiés à BCrypt (0 = nombre de coeurs)
+    @Min(0)
+    private int threads = 0;
+
+    @Min(0)
+    private int queueCapacity = 32;
+
+    // Attente maximale d'un résultat de hachage côté requête HTTP
+    @NotNull
+    private Duration timeout = Duration.ofSeconds(5);
+
+    // Durée visée pour un hachage BCrypt, utilisée pour calibrer le coût au démarrage
+    @NotNull
+    private Duration targetDuration = Duration.ofMillis(250);
+
+    @Min(4)
+    @Max(31)
+    private int minStrength = 10;
+
+    @Min(4)
+    @Max(31)
+    private int maxStrength = 14;
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    public Duration getTargetDuration() {
+        return targetDuration;
+    }
+
+    public void setTargetDuration(Duration targetDuration) {
+        this.targetDuration = targetDuration;
+    }
+
+    public int getMinStrength() {
+        return minStrength;
+    }
+
+    public void setMinStrength(int minStrength) {
+        this.minStrength = minStrength;
+    }
+
+    public int getMaxStrength() {
+        return maxStrength;
+    }
+
+    public void setMaxStrength(int maxStrength) {
+        this.maxStrength = maxStrength;
+    }
+}
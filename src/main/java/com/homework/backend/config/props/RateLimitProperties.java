@@ -0,0 +1,105 @@
+package com.homework.backend.config.props;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.rate-limit")
+@Validated
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    @Valid
+    private Bucket loginIp = new Bucket(20, Duration.ofMinutes(1));
+
+    @Valid
+    private Bucket loginEmail = new Bucket(5, Duration.ofMinutes(1));
+
+    @Valid
+    private Bucket registerIp = new Bucket(10, Duration.ofMinutes(10));
+
+    // Une clé inactive depuis plus longtemps est supprimée par le balayage périodique
+    @NotNull
+    private Duration idleEviction = Duration.ofMinutes(15);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Bucket getLoginIp() {
+        return loginIp;
+    }
+
+    public void setLoginIp(Bucket loginIp) {
+        this.loginIp = loginIp;
+    }
+
+    public Bucket getLoginEmail() {
+        return loginEmail;
+    }
+
+    public void setLoginEmail(Bucket loginEmail) {
+        this.loginEmail = loginEmail;
+    }
+
+    public Bucket getRegisterIp() {
+        return registerIp;
+    }
+
+    public void setRegisterIp(Bucket registerIp) {
+        this.registerIp = registerIp;
+    }
+
+    public Duration getIdleEviction() {
+        return idleEviction;
+    }
+
+    public void setIdleEviction(Duration idleEviction) {
+        this.idleEviction = idleEviction;
+    }
+
+    /**
+     * Seau de "capacity" jetons, entièrement rechargé en "refill-period".
+     */
+    public static class Bucket {
+
+        @Min(1)
+        private int capacity;
+
+        @NotNull
+        private Duration refillPeriod;
+
+        public Bucket() {
+        }
+
+        public Bucket(int capacity, Duration refillPeriod) {
+            this.capacity = capacity;
+            this.refillPeriod = refillPeriod;
+        }
+
+        public int getCapacity() {
+            return capacity;
+        }
+
+        public void setCapacity(int capacity) {
+            this.capacity = capacity;
+        }
+
+        public Duration getRefillPeriod() {
+            return refillPeriod;
+        }
+
+        public void setRefillPeriod(Duration refillPeriod) {
+            this.refillPeriod = refillPeriod;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.homework.backend.config.props;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "payments.seat-hold")
+@Validated
+public class SeatHoldProperties {
+
+    // Durée pendant laquelle la place est retenue après la création du PaymentIntent
+    @NotNull
+    private Duration ttl = Duration.ofMinutes(15);
+
+    // Précision de l'expiration (un tick de la roue temporelle)
+    @NotNull
+    private Duration tick = Duration.ofSeconds(1);
+
+    @Min(16)
+    private int wheelSize = 512;
+
+    // Holds libérés par transaction lors du balayage de la table (holds d'autres instances, redémarrages)
+    @Min(1)
+    private int sweepBatchSize = 500;
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+
+    public Duration getTick() {
+        return tick;
+    }
+
+    public void setTick(Duration tick) {
+        this.tick = tick;
+    }
+
+    public int getWheelSize() {
+        return wheelSize;
+    }
+
+    public void setWheelSize(int wheelSize) {
+        this.wheelSize = wheelSize;
+    }
+
+    public int getSweepBatchSize() {
+        return sweepBatchSize;
+    }
+
+    public void setSweepBatchSize(int sweepBatchSize) {
+        this.sweepBatchSize = sweepBatchSize;
+    }
+}
@@ -0,0 +1,35 @@
+package com.homework.backend.config.props;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "security.user-cache")
+@Validated
+public class UserCacheProperties {
+
+    @Min(0)
+    private long maxSize = 10_000;
+
+    @NotNull
+    private Duration ttl = Duration.ofMinutes(5);
+
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(long maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public void setTtl(Duration ttl) {
+        this.ttl = ttl;
+    }
+}
@@ -0,0 +1,46 @@
+package com.homework.backend.config.props;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@ConfigurationProperties(prefix = "maintenance.verification-token-purge")
+@Validated
+public class VerificationTokenPurgeProperties {
+
+    private boolean enabled = true;
+
+    // Nombre maximal de lignes supprimées par transaction
+    @Min(1)
+    @Max(50_000)
+    private int chunkSize = 5_000;
+
+    // Borne le nombre de transactions par exécution ; le reste est repris au passage suivant
+    @Min(1)
+    private int maxChunksPerRun = 200;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxChunksPerRun() {
+        return maxChunksPerRun;
+    }
+
+    public void setMaxChunksPerRun(int maxChunksPerRun) {
+        this.maxChunksPerRun = maxChunksPerRun;
+    }
+}
@@ -0,0 +1,37 @@
+package com.homework.backend.config.props;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.Duration;
+
+@ConfigurationProperties(prefix = "courses.waitlist")
+@Validated
+public class WaitlistProperties {
+
+    // Délai laissé à l'élève promu pour payer la place qui lui est réservée
+    @NotNull
+    private Duration offerTtl = Duration.ofMinutes(30);
+
+    // Promotions par cours et par transaction
+    @Min(1)
+    private int promotionBatchSize = 20;
+
+    public Duration getOfferTtl() {
+        return offerTtl;
+    }
+
+    public void setOfferTtl(Duration offerTtl) {
+        this.offerTtl = offerTtl;
+    }
+
+    public int getPromotionBatchSize() {
+        return promotionBatchSize;
+    }
+
+    public void setPromotionBatchSize(int promotionBatchSize) {
+        this.promotionBatchSize = promotionBatchSize;
+    }
+}
@@ -2,10 +2,16 @@ package com.homework.backend.controllers;
 
 import com.homework.backend.dto.LoginRequest;
 import com.homework.backend.dto.LoginResponse;
+import com.homework.backend.dto.OAuth2CodeExchangeRequest;
+import com.homework.backend.dto.RefreshTokenRequest;
 import com.homework.backend.dto.RegisterRequest;
+import com.homework.backend.exceptions.ServiceOverloadedException;
 import com.homework.backend.models.User;
+import com.homework.backend.services.AuthRateLimiter;
 import com.homework.backend.services.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
@@ -17,13 +23,18 @@ import org.springframework.web.bind.annotation.*;
 public class AuthController {
 
     private final AuthService authService;
+    private final AuthRateLimiter authRateLimiter;
 
-    public AuthController(AuthService authService) {
+    public AuthController(AuthService authService, AuthRateLimiter authRateLimiter) {
         this.authService = authService;
+        this.authRateLimiter = authRateLimiter;
     }
 
     @PostMapping("/register")
-    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest) {
+    public ResponseEntity<?> registerUser(@Valid @RequestBody RegisterRequest registerRequest, HttpServletRequest request) {
+        // Rejet à faible coût avant tout hachage ou accès base (HTTP 429 via GlobalExceptionHandler)
+        authRateLimiter.checkRegister(request.getRemoteAddr());
+
         try {
             // ✅ Await le CompletableFuture (bloque seulement le thread contrôleur)
             User newUser = authService.register(registerRequest).join();
@@ -33,6 +44,8 @@ public class AuthController {
                             ". Vérifiez votre email pour confirmation.");
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (ServiceOverloadedException e) {
+            return overloaded(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Erreur lors de l'inscription : " + e.getMessage());
@@ -40,17 +53,50 @@ public class AuthController {
     }
 
     @PostMapping("/login")
-    public ResponseEntity<?> loginUser(@RequestBody LoginRequest loginRequest) {
+    public ResponseEntity<?> loginUser(@RequestBody LoginRequest loginRequest, HttpServletRequest request) {
+        authRateLimiter.checkLogin(request.getRemoteAddr(), loginRequest.email());
+
         try {
-            String token = authService.login(loginRequest);
-            return ResponseEntity.ok(new LoginResponse(token));
+            return ResponseEntity.ok(authService.login(loginRequest));
         } catch (IllegalStateException e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        } catch (ServiceOverloadedException e) {
+            return overloaded(e);
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Email ou mot de passe invalide.");
         }
     }
 
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refreshToken(@Valid @RequestBody RefreshTokenRequest refreshRequest) {
+        try {
+            LoginResponse tokens = authService.refresh(refreshRequest.refreshToken());
+            return ResponseEntity.ok(tokens);
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
+    }
+
+    // Le frontend reçoit un code à usage unique en fin de connexion Google et l'échange ici contre ses tokens
+    @PostMapping("/oauth2/token")
+    public ResponseEntity<?> exchangeOAuth2Code(@Valid @RequestBody OAuth2CodeExchangeRequest exchangeRequest) {
+        try {
+            return ResponseEntity.ok(authService.exchangeLoginCode(exchangeRequest.code()));
+        } catch (IllegalArgumentException | IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(e.getMessage());
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<Void> logout(@RequestBody(required = false) RefreshTokenRequest logoutRequest,
+                                       @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorizationHeader) {
+        String accessToken = authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                ? authorizationHeader.substring(7)
+                : null;
+        authService.logout(logoutRequest != null ? logoutRequest.refreshToken() : null, accessToken);
+        return ResponseEntity.noContent().build();
+    }
+
     @GetMapping("/verify-email")
     public ResponseEntity<?> verifyEmail(@RequestParam String token) {
         try {
@@ -72,8 +118,14 @@ public class AuthController {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
         }
 
-        User user = (User) authentication.getPrincipal();
+        User user = authService.getProfile((User) authentication.getPrincipal());
         return ResponseEntity.ok(user);
     }
 
+    private ResponseEntity<String> overloaded(ServiceOverloadedException e) {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .body(e.getMessage());
+    }
+
 }
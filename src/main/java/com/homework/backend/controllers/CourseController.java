@@ -1,18 +1,30 @@
 package com.homework.backend.controllers;
 
+import com.homework.backend.config.props.CourseCacheProperties;
+import com.homework.backend.dto.CourseCardResponse;
+import com.homework.backend.dto.CourseDetailResponse;
+import com.homework.backend.dto.CourseImportReport;
 import com.homework.backend.dto.CourseRequest;
+import com.homework.backend.dto.CourseSuggestion;
+import com.homework.backend.dto.CursorPage;
 import com.homework.backend.models.Category;
 import com.homework.backend.models.Course;
 import com.homework.backend.models.User;
+import com.homework.backend.services.CourseImportService;
 import com.homework.backend.services.CourseService;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.InputStream;
 import java.net.URI;
 import java.util.List;
 
@@ -21,48 +33,107 @@ import java.util.List;
 public class CourseController {
 
     private final CourseService courseService;
+    private final CourseImportService courseImportService;
+    private final CacheControl catalogCacheControl;
 
-    public CourseController(CourseService courseService) {
+    public CourseController(CourseService courseService, CourseImportService courseImportService,
+                            CourseCacheProperties courseCacheProperties) {
         this.courseService = courseService;
+        this.courseImportService = courseImportService;
+        this.catalogCacheControl = CacheControl.maxAge(courseCacheProperties.getHttpMaxAge())
+                .cachePublic()
+                .mustRevalidate();
     }
 
     @PostMapping
     @PreAuthorize("hasAuthority('TEACHER')")
-    public ResponseEntity<Course> createCourse(@Valid @RequestBody CourseRequest courseRequest,
-                                               @AuthenticationPrincipal User currentUser) {
+    public ResponseEntity<CourseDetailResponse> createCourse(@Valid @RequestBody CourseRequest courseRequest,
+                                                             @AuthenticationPrincipal User currentUser) {
         Course savedCourse = courseService.createCourse(courseRequest, currentUser);
         return ResponseEntity
                 .created(URI.create("/courses/" + savedCourse.getId()))
-                .body(savedCourse);
+                .body(CourseDetailResponse.from(savedCourse));
     }
 
+    /**
+     * Fiche servie depuis le cache : un If-None-Match à jour est résolu en 304 sans requête SQL.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<Course> getCourseById(@PathVariable Long id) {
-        Course course = courseService.getCourseById(id);
-        return ResponseEntity.ok(course);
+    public ResponseEntity<CourseDetailResponse> getCourseById(@PathVariable Long id, WebRequest request) {
+        CourseDetailResponse course = courseService.getCourseDetail(id);
+        if (request.checkNotModified(course.etag())) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(catalogCacheControl).build();
+        }
+        return ResponseEntity.ok()
+                .eTag(course.etag())
+                .cacheControl(catalogCacheControl)
+                .body(course);
     }
 
+    /**
+     * Import en masse depuis un tableau JSON de {@link CourseRequest}. Avec {@code dryRun=true},
+     * les lignes sont seulement validées.
+     */
+    @PostMapping(value = "/import", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @PreAuthorize("hasAuthority('TEACHER')")
+    public ResponseEntity<CourseImportReport> importCoursesFromJson(InputStream body,
+                                                                    @RequestParam(defaultValue = "false") boolean dryRun,
+                                                                    @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(courseImportService.importJson(body, currentUser, dryRun));
+    }
+
+    @PostMapping(value = "/import", consumes = "text/csv")
+    @PreAuthorize("hasAuthority('TEACHER')")
+    public ResponseEntity<CourseImportReport> importCoursesFromCsv(InputStream body,
+                                                                   @RequestParam(defaultValue = "false") boolean dryRun,
+                                                                   @AuthenticationPrincipal User currentUser) {
+        return ResponseEntity.ok(courseImportService.importCsv(body, currentUser, dryRun));
+    }
+
+    /**
+     * Recherche paginée. Avec le paramètre {@code cursor} (vide pour la première page), répond en mode
+     * curseur : {@link CursorPage} trié par {@code orderBy} (createdAt ou courseDate), sans total.
+     */
     @GetMapping
-    public ResponseEntity<Page<Course>> searchCourses(
+    public ResponseEntity<?> searchCourses(
             @RequestParam(required = false, name = "keyword") String keyword,
             @RequestParam(required = false, name = "title") String legacyTitle,
             @RequestParam(required = false) Category category,
             @RequestParam(required = false) String city,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "createdAt") String orderBy,
             Pageable pageable) {
 
         String query = keyword != null ? keyword : legacyTitle;
 
-        Page<Course> courses = courseService.searchCourses(query, category, city, pageable);
-        return ResponseEntity.ok(courses);
+        if (cursor != null) {
+            return ResponseEntity.ok()
+                    .cacheControl(catalogCacheControl)
+                    .body(courseService.scrollCourses(query, null, category, city, orderBy, cursor, pageable.getPageSize()));
+        }
+
+        Page<CourseCardResponse> courses = courseService.searchCourses(query, category, city, pageable);
+        return ResponseEntity.ok().cacheControl(catalogCacheControl).body(courses);
+    }
+
+    /**
+     * Auto-complétion sur les titres, villes et formateurs, servie depuis l'index en mémoire.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<CourseSuggestion>> suggest(@RequestParam String prefix,
+                                                          @RequestParam(required = false) Integer limit) {
+        return ResponseEntity.ok()
+                .cacheControl(catalogCacheControl)
+                .body(courseService.suggest(prefix, limit));
     }
 
     @PutMapping("/{id}")
     @PreAuthorize("hasAuthority('TEACHER')")
-    public ResponseEntity<Course> updateCourse(@PathVariable Long id,
-                                               @Valid @RequestBody CourseRequest courseRequest,
-                                               @AuthenticationPrincipal User currentUser) {
+    public ResponseEntity<CourseDetailResponse> updateCourse(@PathVariable Long id,
+                                                             @Valid @RequestBody CourseRequest courseRequest,
+                                                             @AuthenticationPrincipal User currentUser) {
         Course updatedCourse = courseService.updateCourse(id, courseRequest, currentUser);
-        return ResponseEntity.ok(updatedCourse);
+        return ResponseEntity.ok(CourseDetailResponse.from(updatedCourse));
     }
 
     @DeleteMapping("/{id}")
@@ -74,19 +145,26 @@ public class CourseController {
     }
 
     @GetMapping("/courses")
-    public ResponseEntity<List<Course>> getMyCourses(@AuthenticationPrincipal User currentUser) {
-        List<Course> courses = courseService.getCoursesByTeacher(currentUser);
+    public ResponseEntity<List<CourseCardResponse>> getMyCourses(@AuthenticationPrincipal User currentUser) {
+        List<CourseCardResponse> courses = courseService.getCoursesByTeacher(currentUser);
         return ResponseEntity.ok(courses);
     }
 
     @GetMapping("/all")
-    public ResponseEntity<Page<Course>> getAllCourses(
+    public ResponseEntity<?> getAllCourses(
             @RequestParam(required = false) String query,
             @RequestParam(required = false) Category category,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "createdAt") String orderBy,
             Pageable pageable
     ) {
-        Page<Course> courses = courseService.findWithFilters(query, category, pageable);
-        return ResponseEntity.ok(courses);
+        if (cursor != null) {
+            return ResponseEntity.ok()
+                    .cacheControl(catalogCacheControl)
+                    .body(courseService.scrollCourses(null, query, category, null, orderBy, cursor, pageable.getPageSize()));
+        }
+        Page<CourseCardResponse> courses = courseService.findWithFilters(query, category, pageable);
+        return ResponseEntity.ok().cacheControl(catalogCacheControl).body(courses);
     }
 
 }
@@ -1,11 +1,16 @@
 package com.homework.backend.controllers;
 
+import com.homework.backend.dto.EnrollmentPeriod;
 import com.homework.backend.dto.EnrollmentRequest;
 import com.homework.backend.dto.EnrollmentResponse;
 import com.homework.backend.models.Enrollment;
+import com.homework.backend.models.EnrollmentStatus;
 import com.homework.backend.models.User;
 import com.homework.backend.services.EnrollmentService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.web.PageableDefault;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
@@ -18,6 +23,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class EnrollmentController {
 
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final EnrollmentService enrollmentService;
 
     @PostMapping
@@ -27,10 +34,19 @@ public class EnrollmentController {
         return ResponseEntity.ok(enrollmentService.toResponse(newEnrollment));
     }
 
+    /**
+     * Inscriptions de l'élève connecté, paginées ({@code page}, {@code size}) et filtrables par statut et par
+     * période ({@code UPCOMING} ou {@code PAST}). Le corps reste une liste ; le total est dans X-Total-Count.
+     */
     @GetMapping("/my-courses")
     @PreAuthorize("hasAuthority('STUDENT')")
-    public ResponseEntity<List<EnrollmentResponse>> getMyCourses(@AuthenticationPrincipal User student) {
-        List<EnrollmentResponse> enrollments = enrollmentService.getEnrollmentsForStudent(student.getId());
-        return ResponseEntity.ok(enrollments);
+    public ResponseEntity<List<EnrollmentResponse>> getMyCourses(@AuthenticationPrincipal User student,
+                                                                 @RequestParam(required = false) EnrollmentStatus status,
+                                                                 @RequestParam(required = false) EnrollmentPeriod period,
+                                                                 @PageableDefault(size = 50) Pageable pageable) {
+        Page<EnrollmentResponse> enrollments = enrollmentService.getEnrollmentsForStudent(student.getId(), status, period, pageable);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(enrollments.getTotalElements()))
+                .body(enrollments.getContent());
     }
 }
@@ -0,0 +1,39 @@
+package com.homework.backend.controllers;
+
+import com.homework.backend.dto.WaitlistPositionResponse;
+import com.homework.backend.models.User;
+import com.homework.backend.services.WaitlistService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/courses/{courseId}/waitlist")
+public class WaitlistController {
+
+    private final WaitlistService waitlistService;
+
+    public WaitlistController(WaitlistService waitlistService) {
+        this.waitlistService = waitlistService;
+    }
+
+    @PostMapping
+    @PreAuthorize("hasAuthority('STUDENT')")
+    public ResponseEntity<WaitlistPositionResponse> join(@PathVariable Long courseId, @AuthenticationPrincipal User student) {
+        return ResponseEntity.ok(waitlistService.join(courseId, student));
+    }
+
+    @GetMapping
+    @PreAuthorize("hasAuthority('STUDENT')")
+    public ResponseEntity<WaitlistPositionResponse> getPosition(@PathVariable Long courseId, @AuthenticationPrincipal User student) {
+        return ResponseEntity.ok(waitlistService.getPosition(courseId, student));
+    }
+
+    @DeleteMapping
+    @PreAuthorize("hasAuthority('STUDENT')")
+    public ResponseEntity<Void> leave(@PathVariable Long courseId, @AuthenticationPrincipal User student) {
+        waitlistService.leave(courseId, student);
+        return ResponseEntity.noContent().build();
+    }
+}
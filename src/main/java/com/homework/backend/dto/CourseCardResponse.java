@@ -0,0 +1,37 @@
+package com.homework.backend.dto;
+
+import com.homework.backend.models.Category;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Cours tel qu'affiché dans les listes : seules les colonnes utiles sont lues (projection JPQL).
+ */
+public record CourseCardResponse(
+        Long id,
+        String title,
+        String description,
+        Category category,
+        BigDecimal price,
+        String city,
+        LocalDateTime courseDateTime,
+        Integer duration,
+        Integer maxStudents,
+        int enrolledStudentsCount,
+        LocalDateTime createdAt,
+        TeacherSummary teacher
+) {
+
+    // Constructeur à plat utilisé par les requêtes "SELECT new ..."
+    public CourseCardResponse(Long id, String title, String description, Category category, BigDecimal price,
+                              String city, LocalDateTime courseDateTime, Integer duration, Integer maxStudents,
+                              int enrolledStudentsCount, LocalDateTime createdAt,
+                              Long teacherId, String teacherFirstName, String teacherLastName) {
+        this(id, title, description, category, price, city, courseDateTime, duration, maxStudents,
+                enrolledStudentsCount, createdAt, new TeacherSummary(teacherId, teacherFirstName, teacherLastName));
+    }
+
+    public record TeacherSummary(Long id, String firstName, String lastName) {
+    }
+}
@@ -0,0 +1,74 @@
+package com.homework.backend.dto;
+
+import com.homework.backend.exceptions.InvalidCursorException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position dans une liste de cours triée par (clé de tri, id) : la clé et l'id du dernier cours reçu.
+ * Transmise au client sous forme opaque (base64url).
+ */
+public record CourseCursor(Order order, LocalDateTime sortKey, Long id) {
+
+    private static final String VERSION = "v1";
+    private static final char SEPARATOR = '|';
+
+    public enum Order {
+        // Les plus récents d'abord
+        CREATED_AT("createdAt", "created_at", false),
+        // Les prochains cours d'abord
+        COURSE_DATE("courseDate", "course_date_time", true);
+
+        private final String param;
+        private final String column;
+        private final boolean ascending;
+
+        Order(String param, String column, boolean ascending) {
+            this.param = param;
+            this.column = column;
+            this.ascending = ascending;
+        }
+
+        public String column() {
+            return column;
+        }
+
+        public boolean ascending() {
+            return ascending;
+        }
+
+        public static Order fromParam(String value) {
+            for (Order order : values()) {
+                if (order.param.equalsIgnoreCase(value)) {
+                    return order;
+                }
+            }
+            throw new InvalidCursorException("Tri inconnu : " + value + " (valeurs possibles : createdAt, courseDate)");
+        }
+    }
+
+    public String encode() {
+        String raw = VERSION + SEPARATOR + order.name() + SEPARATOR + sortKey + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static CourseCursor decode(String cursor, Order expectedOrder) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 4 || !VERSION.equals(parts[0])) {
+                throw new InvalidCursorException("Curseur invalide.");
+            }
+            Order order = Order.valueOf(parts[1]);
+            if (order != expectedOrder) {
+                throw new InvalidCursorException("Ce curseur a été émis pour un autre tri.");
+            }
+            return new CourseCursor(order, LocalDateTime.parse(parts[2]), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCursorException("Curseur invalide.");
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.homework.backend.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.homework.backend.models.Category;
+import com.homework.backend.models.Course;
+import com.homework.backend.models.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Fiche d'un cours : comme {@link CourseCardResponse}, avec la présentation du formateur.
+ */
+public record CourseDetailResponse(
+        Long id,
+        String title,
+        String description,
+        Category category,
+        BigDecimal price,
+        String city,
+        LocalDateTime courseDateTime,
+        Integer duration,
+        Integer maxStudents,
+        int enrolledStudentsCount,
+        LocalDateTime createdAt,
+        TeacherProfile teacher,
+        @JsonIgnore Long version
+) {
+
+    // Constructeur à plat utilisé par les requêtes "SELECT new ..."
+    public CourseDetailResponse(Long id, String title, String description, Category category, BigDecimal price,
+                                String city, LocalDateTime courseDateTime, Integer duration, Integer maxStudents,
+                                int enrolledStudentsCount, LocalDateTime createdAt,
+                                Long teacherId, String teacherFirstName, String teacherLastName, String teacherBio,
+                                Long version) {
+        this(id, title, description, category, price, city, courseDateTime, duration, maxStudents,
+                enrolledStudentsCount, createdAt, new TeacherProfile(teacherId, teacherFirstName, teacherLastName, teacherBio),
+                version);
+    }
+
+    public static CourseDetailResponse from(Course course) {
+        User teacher = course.getTeacher();
+        return new CourseDetailResponse(
+                course.getId(),
+                course.getTitle(),
+                course.getDescription(),
+                course.getCategory(),
+                course.getPrice(),
+                course.getCity(),
+                course.getCourseDateTime(),
+                course.getDuration(),
+                course.getMaxStudents(),
+                course.getEnrolledStudentsCount(),
+                course.getCreatedAt(),
+                teacher.getId(),
+                teacher.getFirstName(),
+                teacher.getLastName(),
+                teacher.getBio(),
+                course.getVersion()
+        );
+    }
+
+    /**
+     * ETag fort de la fiche. Le compteur d'inscriptions est maintenu hors verrou optimiste
+     * (UPDATE atomiques), il fait donc partie de l'ETag en plus de la version.
+     */
+    public String etag() {
+        return "\"" + id + "-" + version + "-" + enrolledStudentsCount + "\"";
+    }
+
+    public record TeacherProfile(Long id, String firstName, String lastName, String bio) {
+    }
+}
@@ -0,0 +1,31 @@
+package com.homework.backend.dto;
+
+import java.util.List;
+
+/**
+ * Résultat d'un import de cours, ligne par ligne. En mode {@code dryRun}, rien n'est enregistré
+ * et les lignes valides sont rapportées avec le statut {@link RowStatus#VALID}.
+ * {@code truncated} indique que le fichier dépassait le nombre maximal de lignes : le reste n'a pas été lu.
+ */
+public record CourseImportReport(
+        boolean dryRun,
+        int totalRows,
+        int accepted,
+        int rejected,
+        boolean truncated,
+        List<RowResult> rows
+) {
+
+    public enum RowStatus {
+        CREATED,
+        VALID,
+        REJECTED,
+        FAILED
+    }
+
+    /**
+     * @param row numéro de la ligne de données (1 pour le premier cours, en-tête CSV exclu)
+     */
+    public record RowResult(int row, RowStatus status, Long courseId, List<String> errors) {
+    }
+}
@@ -0,0 +1,13 @@
+package com.homework.backend.dto;
+
+/**
+ * Suggestion d'auto-complétion : un titre, une ville ou un formateur, avec le nombre de cours concernés.
+ */
+public record CourseSuggestion(String label, Kind kind, int courseCount) {
+
+    public enum Kind {
+        TITLE,
+        CITY,
+        TEACHER
+    }
+}
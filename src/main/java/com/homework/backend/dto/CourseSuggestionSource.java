@@ -0,0 +1,19 @@
+package com.homework.backend.dto;
+
+import com.homework.backend.models.Course;
+
+/**
+ * Champs d'un cours indexés pour l'auto-complétion.
+ */
+public record CourseSuggestionSource(Long id, String title, String city, String teacherFirstName, String teacherLastName) {
+
+    public static CourseSuggestionSource from(Course course) {
+        return new CourseSuggestionSource(
+                course.getId(),
+                course.getTitle(),
+                course.getCity(),
+                course.getTeacher().getFirstName(),
+                course.getTeacher().getLastName()
+        );
+    }
+}
@@ -0,0 +1,9 @@
+package com.homework.backend.dto;
+
+import java.util.List;
+
+/**
+ * Page en mode curseur : pas de total, seulement le curseur de la page suivante (null en fin de liste).
+ */
+public record CursorPage<T>(List<T> content, String nextCursor, boolean hasNext, int size) {
+}
@@ -0,0 +1,9 @@
+package com.homework.backend.dto;
+
+/**
+ * Filtre des inscriptions d'un élève selon la date du cours : à venir (ou non datés) ou passés.
+ */
+public enum EnrollmentPeriod {
+    UPCOMING,
+    PAST
+}
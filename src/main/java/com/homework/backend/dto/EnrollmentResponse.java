@@ -14,6 +14,18 @@ public record EnrollmentResponse(
         CourseSummary course
 ) {
 
+    // Forme à plat pour les projections JPQL (SELECT new ...), qui ne savent pas construire les records imbriqués
+    public EnrollmentResponse(Long id, LocalDateTime enrolledAt, EnrollmentStatus status,
+                              Long courseId, String title, String description, Category category, BigDecimal price,
+                              String city, LocalDateTime courseDateTime, Integer duration, Integer maxStudents,
+                              int enrolledStudentsCount, LocalDateTime courseCreatedAt,
+                              Long teacherId, String teacherFirstName, String teacherLastName, String teacherEmail,
+                              String teacherBio, Role teacherRole) {
+        this(id, enrolledAt, status, new CourseSummary(courseId, title, description, category, price, city,
+                courseDateTime, duration, maxStudents, enrolledStudentsCount, courseCreatedAt,
+                new TeacherSummary(teacherId, teacherFirstName, teacherLastName, teacherEmail, teacherBio, teacherRole)));
+    }
+
     public record CourseSummary(
             Long id,
             String title,
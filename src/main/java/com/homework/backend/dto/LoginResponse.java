@@ -1,3 +1,3 @@
 package com.homework.backend.dto;
 
-public record LoginResponse(String token) {}
+public record LoginResponse(String token, String refreshToken) {}
@@ -0,0 +1,5 @@
+package com.homework.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record OAuth2CodeExchangeRequest(@NotBlank String code) {}
@@ -1,6 +1,7 @@
 package com.homework.backend.dto;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 public record PaymentIntentResponse(
         String clientSecret,
@@ -10,7 +11,9 @@ public record PaymentIntentResponse(
         BigDecimal platformFee,
         BigDecimal teacherAmount,
         Long paymentId,
-        String publishableKey
+        String publishableKey,
+        // Fin du délai de paiement : au-delà, la place retenue est libérée
+        LocalDateTime seatHeldUntil
 ) {
 }
 
@@ -0,0 +1,5 @@
+package com.homework.backend.dto;
+
+import jakarta.validation.constraints.NotBlank;
+
+public record RefreshTokenRequest(@NotBlank String refreshToken) {}
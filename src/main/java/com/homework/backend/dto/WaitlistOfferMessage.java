@@ -0,0 +1,13 @@
+package com.homework.backend.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Poussé sur /user/queue/waitlist quand l'élève est promu : une place lui est retenue jusqu'à {@code offerExpiresAt}.
+ */
+public record WaitlistOfferMessage(
+        Long courseId,
+        String courseTitle,
+        LocalDateTime offerExpiresAt
+) {
+}
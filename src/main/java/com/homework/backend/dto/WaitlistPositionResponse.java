@@ -0,0 +1,11 @@
+package com.homework.backend.dto;
+
+/**
+ * Place d'un élève dans la liste d'attente d'un cours : {@code position} vaut 1 pour le prochain promu.
+ */
+public record WaitlistPositionResponse(
+        Long courseId,
+        long position,
+        long waitingCount
+) {
+}
@@ -0,0 +1,11 @@
+package com.homework.backend.exceptions;
+
+/**
+ * Levée lorsqu'un curseur de pagination est illisible ou ne correspond pas au tri demandé (HTTP 400).
+ */
+public class InvalidCursorException extends RuntimeException {
+
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.homework.backend.exceptions;
+
+/**
+ * Levée lorsqu'un fichier d'import est illisible dans son ensemble : JSON mal formé, en-tête CSV absent (HTTP 400).
+ * Les erreurs propres à une ligne sont, elles, rapportées dans le rapport d'import.
+ */
+public class InvalidImportFileException extends RuntimeException {
+
+    public InvalidImportFileException(String message) {
+        super(message);
+    }
+
+    public InvalidImportFileException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
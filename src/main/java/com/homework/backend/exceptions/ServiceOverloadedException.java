@@ -0,0 +1,19 @@
+package com.homework.backend.exceptions;
+
+/**
+ * Levée lorsqu'une ressource bornée (pool de hachage, limiteur...) est saturée.
+ * La requête est rejetée immédiatement plutôt que mise en attente.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public ServiceOverloadedException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,18 @@
+package com.homework.backend.exceptions;
+
+/**
+ * Levée lorsqu'un client dépasse le débit autorisé (HTTP 429).
+ */
+public class TooManyRequestsException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -16,7 +16,8 @@ import java.util.List;
 @Getter
 public class Conversation {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "conversation_seq")
+    @SequenceGenerator(name = "conversation_seq", sequenceName = "conversation_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne
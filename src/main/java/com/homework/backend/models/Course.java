@@ -5,8 +5,8 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.ColumnDefault;
 import org.hibernate.annotations.CreationTimestamp;
-import org.hibernate.annotations.Formula;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -16,11 +16,16 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "courses")
+@Table(name = "courses", indexes = {
+        // Pagination par curseur : parcours ordonné de (clé de tri, id)
+        @Index(name = "idx_courses_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_courses_course_date_time_id", columnList = "course_date_time, id")
+})
 public class Course {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "courses_seq")
+    @SequenceGenerator(name = "courses_seq", sequenceName = "courses_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -48,10 +53,27 @@ public class Course {
     @Column(name = "max_students")
     private Integer maxStudents;
 
-    @Formula("(SELECT COUNT(e.id) FROM enrollments e WHERE e.course_id = id)")
-    private int enrolledStudentsCount;
+    // Inscriptions ACTIVE, maintenu par des UPDATE atomiques (CourseRepository) et réconcilié
+    // périodiquement : jamais écrit depuis l'entité
+    @Column(name = "active_enrollment_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int enrolledStudentsCount = 0;
+
+    // Places retenues par un paiement en cours (table seat_holds), comptées dans la capacité du cours
+    @Column(name = "held_seat_count", nullable = false, insertable = false, updatable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private int heldSeatCount = 0;
+
+    // Incrémentée à chaque modification de la fiche : verrou optimiste et base de l'ETag HTTP
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
 
     @CreationTimestamp
+    @Column(name = "created_at")
     private LocalDateTime createdAt;
 
     @ManyToOne
@@ -0,0 +1,71 @@
+package com.homework.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Email en attente d'envoi, écrit dans la même transaction que le changement métier
+ * qui le déclenche, puis envoyé par {@link com.homework.backend.services.EmailOutboxDispatcher}.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "email_outbox", indexes = {
+        @Index(name = "idx_email_outbox_status_next_attempt", columnList = "status, next_attempt_at")
+})
+public class EmailOutboxMessage {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "email_outbox_seq")
+    @SequenceGenerator(name = "email_outbox_seq", sequenceName = "email_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String recipient;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String body;
+
+    // Variante HTML facultative, envoyée en multipart/alternative avec le texte
+    @Column(columnDefinition = "TEXT")
+    private String htmlBody;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    @Builder.Default
+    private EmailOutboxStatus status = EmailOutboxStatus.PENDING;
+
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Fin du bail d'envoi : au-delà, un message resté SENDING (instance arrêtée) est repris
+    private LocalDateTime lockedUntil;
+
+    // Jeton du passage qui a réclamé le message : seul ce passage peut enregistrer le résultat de l'envoi
+    private UUID claimToken;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    private LocalDateTime sentAt;
+}
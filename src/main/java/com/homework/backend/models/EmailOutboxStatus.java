@@ -0,0 +1,8 @@
+package com.homework.backend.models;
+
+public enum EmailOutboxStatus {
+    PENDING,
+    SENDING,
+    SENT,
+    FAILED
+}
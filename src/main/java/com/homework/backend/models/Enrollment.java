@@ -14,11 +14,15 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "enrollments")
+@Table(name = "enrollments", indexes = {
+        // Inscriptions d'un élève (GET /enrollments/my-courses), les plus récentes d'abord
+        @Index(name = "idx_enrollments_student_enrolled_at", columnList = "student_id, enrolled_at")
+})
 public class Enrollment {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "enrollments_seq")
+    @SequenceGenerator(name = "enrollments_seq", sequenceName = "enrollments_seq", allocationSize = 50)
     private Long id;
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -0,0 +1,43 @@
+package com.homework.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Code à usage unique remis au frontend après une connexion Google, échangé contre une paire de tokens
+ * par POST /auth/oauth2/token : les tokens ne transitent jamais dans l'URL de redirection.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "oauth2_login_codes")
+public class OAuth2LoginCode {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "oauth2_login_codes_seq")
+    @SequenceGenerator(name = "oauth2_login_codes_seq", sequenceName = "oauth2_login_codes_seq", allocationSize = 50)
+    private Long id;
+
+    // Empreinte SHA-256 (hex) du code : le code en clair n'est jamais stocké
+    @Column(nullable = false, unique = true, length = 64)
+    private String codeHash;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "user_id")
+    private User user;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,36 @@
+package com.homework.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "revoked_access_tokens", indexes = {
+        @Index(name = "idx_revoked_access_tokens_revoked_at", columnList = "revokedAt")
+})
+public class RevokedAccessToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revoked_access_tokens_seq")
+    @SequenceGenerator(name = "revoked_access_tokens_seq", sequenceName = "revoked_access_tokens_seq", allocationSize = 50)
+    private Long id;
+
+    // Claim "jti" du token d'accès révoqué
+    @Column(nullable = false, unique = true, length = 64)
+    private String jti;
+
+    // Expiration du token : au-delà, l'entrée est inutile et peut être purgée
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    @Column(nullable = false)
+    private LocalDateTime revokedAt;
+}
@@ -0,0 +1,52 @@
+package com.homework.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Place retenue pendant le paiement d'un cours. La ligne existe tant que la place est retenue :
+ * elle est supprimée à la confirmation du paiement (la place devient une inscription), à son
+ * annulation ou à l'expiration du délai. Chaque hold est compté dans courses.held_seat_count.
+ * Sans paiement, c'est une place proposée à un élève promu de la liste d'attente : le paiement
+ * lui est rattaché à la création du PaymentIntent.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "seat_holds", indexes = {
+        @Index(name = "idx_seat_holds_expires_at", columnList = "expires_at")
+})
+public class SeatHold {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "seat_holds_seq")
+    @SequenceGenerator(name = "seat_holds_seq", sequenceName = "seat_holds_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "course_id")
+    private Course course;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "student_id")
+    private User student;
+
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "payment_id", unique = true)
+    private Payment payment;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+
+    @CreationTimestamp
+    @Column(nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -1,7 +1,9 @@
 package com.homework.backend.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -21,7 +23,8 @@ import java.util.List;
 public class User implements UserDetails {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -47,6 +50,13 @@ public class User implements UserDetails {
     @Column(length = 2000)
     private String bio;
 
+    // Incrémenté pour invalider tous les JWT déjà émis (changement de rôle, désactivation...)
+    @JsonIgnore
+    @Column(name = "token_version", nullable = false)
+    @ColumnDefault("0")
+    @Builder.Default
+    private Integer tokenVersion = 0;
+
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
 
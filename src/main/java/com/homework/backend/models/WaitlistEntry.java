@@ -0,0 +1,46 @@
+package com.homework.backend.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+/**
+ * Élève en attente d'une place sur un cours complet. L'ordre d'arrivée est (created_at, id) :
+ * les ids, tirés par blocs, ne suivent pas l'ordre chronologique entre instances.
+ * La ligne est supprimée quand l'élève est promu (une place lui est retenue) ou quitte la liste.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "waitlist_entries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_waitlist_entries_course_student", columnNames = {"course_id", "student_id"}),
+        indexes = {
+                // File d'attente d'un cours parcourue dans l'ordre : tête de file et calcul de position
+                @Index(name = "idx_waitlist_entries_course_queue", columnList = "course_id, created_at, id")
+        })
+public class WaitlistEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "waitlist_entries_seq")
+    @SequenceGenerator(name = "waitlist_entries_seq", sequenceName = "waitlist_entries_seq", allocationSize = 50)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "course_id")
+    private Course course;
+
+    @ManyToOne(fetch = FetchType.LAZY, optional = false)
+    @JoinColumn(name = "student_id")
+    private User student;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+}
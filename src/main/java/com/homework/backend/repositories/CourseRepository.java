@@ -1,15 +1,150 @@
 package com.homework.backend.repositories;
 
+import com.homework.backend.dto.CourseDetailResponse;
+import com.homework.backend.dto.CourseSuggestionSource;
 import com.homework.backend.models.Course;
-import com.homework.backend.models.User;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecificationExecutor<Course> {
-    List<Course> findByTeacher(User teacher);
+public interface CourseRepository extends JpaRepository<Course, Long>, JpaSpecificationExecutor<Course>, CourseSearchRepository {
     long countByTeacherId(Long teacherId);
+
+    @Query("""
+            SELECT new com.homework.backend.dto.CourseDetailResponse(
+                c.id, c.title, c.description, c.category, c.price, c.city, c.courseDateTime, c.duration,
+                c.maxStudents, c.enrolledStudentsCount, c.createdAt, t.id, t.firstName, t.lastName, t.bio, c.version)
+            FROM Course c JOIN c.teacher t
+            WHERE c.id = :id
+            """)
+    Optional<CourseDetailResponse> findDetailById(@Param("id") Long id);
+
+    @Query("""
+            SELECT new com.homework.backend.dto.CourseSuggestionSource(c.id, c.title, c.city, t.firstName, t.lastName)
+            FROM Course c JOIN c.teacher t
+            """)
+    List<CourseSuggestionSource> findSuggestionSources();
+
+    @Query("""
+            SELECT new com.homework.backend.dto.CourseSuggestionSource(c.id, c.title, c.city, t.firstName, t.lastName)
+            FROM Course c JOIN c.teacher t
+            WHERE t.id = :teacherId
+            """)
+    List<CourseSuggestionSource> findSuggestionSourcesByTeacherId(@Param("teacherId") Long teacherId);
+
+    // La fiche affiche le profil du formateur : ses modifications doivent changer l'ETag de ses cours
+    @Modifying
+    @Query("UPDATE Course c SET c.version = c.version + 1 WHERE c.teacher.id = :teacherId")
+    int bumpVersionByTeacherId(@Param("teacherId") Long teacherId);
+
+    /**
+     * Réserve une place si le cours n'est pas complet : 1 si la place est prise, 0 sinon.
+     * La condition est réévaluée après l'attente du verrou de ligne : deux transactions concurrentes
+     * ne peuvent pas prendre la dernière place. Les places retenues par un paiement en cours comptent.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Course c SET c.enrolledStudentsCount = c.enrolledStudentsCount + 1
+            WHERE c.id = :courseId
+              AND (c.maxStudents IS NULL OR c.enrolledStudentsCount + c.heldSeatCount < c.maxStudents)
+            """)
+    int tryReserveSeat(@Param("courseId") Long courseId);
+
+    /**
+     * Comme {@link #tryReserveSeat}, pour un élève qui n'a pas de place proposée : refusé tant que d'autres
+     * élèves attendent sur la liste d'attente du cours, à qui revient toute place libérée (ordre d'arrivée).
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Course c SET c.enrolledStudentsCount = c.enrolledStudentsCount + 1
+            WHERE c.id = :courseId
+              AND (c.maxStudents IS NULL OR c.enrolledStudentsCount + c.heldSeatCount < c.maxStudents)
+              AND NOT EXISTS (SELECT 1 FROM WaitlistEntry w WHERE w.course.id = :courseId AND w.student.id <> :studentId)
+            """)
+    int tryReserveUnclaimedSeat(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
+
+    // Retient une place pour un paiement, aux mêmes conditions que tryReserveSeat
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Course c SET c.heldSeatCount = c.heldSeatCount + 1
+            WHERE c.id = :courseId
+              AND (c.maxStudents IS NULL OR c.enrolledStudentsCount + c.heldSeatCount < c.maxStudents)
+            """)
+    int tryHoldSeat(@Param("courseId") Long courseId);
+
+    // Retient une place pour le paiement d'un élève sans place proposée, aux mêmes conditions que tryReserveUnclaimedSeat
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Course c SET c.heldSeatCount = c.heldSeatCount + 1
+            WHERE c.id = :courseId
+              AND (c.maxStudents IS NULL OR c.enrolledStudentsCount + c.heldSeatCount < c.maxStudents)
+              AND NOT EXISTS (SELECT 1 FROM WaitlistEntry w WHERE w.course.id = :courseId AND w.student.id <> :studentId)
+            """)
+    int tryHoldUnclaimedSeat(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
+
+    // La place retenue devient une inscription : la capacité n'est pas revérifiée
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Course c SET c.heldSeatCount = c.heldSeatCount - 1, c.enrolledStudentsCount = c.enrolledStudentsCount + 1
+            WHERE c.id = :courseId AND c.heldSeatCount > 0
+            """)
+    int convertHeldSeat(@Param("courseId") Long courseId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE Course c
+            SET c.heldSeatCount = CASE WHEN c.heldSeatCount > :count THEN c.heldSeatCount - :count ELSE 0 END
+            WHERE c.id = :courseId
+            """)
+    int releaseHeldSeats(@Param("courseId") Long courseId, @Param("count") int count);
+
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Course c SET c.enrolledStudentsCount = c.enrolledStudentsCount - 1 WHERE c.id = :courseId AND c.enrolledStudentsCount > 0")
+    int decrementActiveEnrollmentCount(@Param("courseId") Long courseId);
+
+    // Inscriptions ACTIVE passées en masse à COMPLETED (EnrollmentCompletionService)
+    @Modifying
+    @Query("""
+            UPDATE Course c
+            SET c.enrolledStudentsCount = CASE WHEN c.enrolledStudentsCount > :count THEN c.enrolledStudentsCount - :count ELSE 0 END
+            WHERE c.id = :courseId
+            """)
+    int decrementActiveEnrollmentCountBy(@Param("courseId") Long courseId, @Param("count") int count);
+
+    @Query("SELECT c.id FROM Course c WHERE c.id > :afterId ORDER BY c.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    // Verrouille les cours du lot : les inscriptions concurrentes attendent la fin de la réconciliation
+    @Query(value = "SELECT id FROM courses WHERE id IN (:ids) ORDER BY id FOR UPDATE", nativeQuery = true)
+    List<Long> lockByIds(@Param("ids") List<Long> ids);
+
+    /**
+     * Recalcule les compteurs des cours donnés à partir des tables enrollments et seat_holds.
+     *
+     * @return le nombre de cours dont un compteur était faux
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE courses c
+            SET active_enrollment_count = counts.active,
+                held_seat_count = counts.held
+            FROM (
+                SELECT c2.id,
+                       (SELECT COUNT(*) FROM enrollments e WHERE e.course_id = c2.id AND e.status = 'ACTIVE') AS active,
+                       (SELECT COUNT(*) FROM seat_holds h WHERE h.course_id = c2.id) AS held
+                FROM courses c2
+                WHERE c2.id IN (:ids)
+            ) counts
+            WHERE c.id = counts.id
+              AND (c.active_enrollment_count <> counts.active OR c.held_seat_count <> counts.held)
+            """, nativeQuery = true)
+    int reconcileActiveEnrollmentCounts(@Param("ids") List<Long> ids);
 }
@@ -0,0 +1,44 @@
+package com.homework.backend.repositories;
+
+import com.homework.backend.dto.CourseCardResponse;
+import com.homework.backend.dto.CourseCursor;
+import com.homework.backend.models.Category;
+import com.homework.backend.models.Course;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Listes de cours en projection {@link CourseCardResponse} : recherche par mot-clé sur l'index
+ * plein texte PostgreSQL (voir db/course-search.sql), filtres et pagination par curseur.
+ * Chaque liste est obtenue en deux requêtes : les ids de la page, puis les cartes de ces ids
+ * ({@link #findCardsByIds(List)}), ce qui permet de mettre en cache les seuls ids.
+ */
+public interface CourseSearchRepository {
+
+    /**
+     * Ids des cours correspondant au mot-clé, triés par pertinence (rang plein texte, puis similarité trigramme).
+     */
+    Page<Long> searchIdsByKeyword(String keyword, Category category, String city, Pageable pageable);
+
+    /**
+     * Pagination par curseur (keyset) : les {@code limit} cours suivant {@code after} dans l'ordre
+     * (clé de tri, id), sans OFFSET ni COUNT. Tous les filtres sont facultatifs ; les cours sans
+     * valeur pour la clé de tri sont exclus.
+     */
+    List<CourseCardResponse> scrollCourses(String keyword, String titleContains, Category category, String city,
+                                           CourseCursor.Order order, CourseCursor after, int limit);
+
+    Page<Long> findIds(Specification<Course> spec, Pageable pageable);
+
+    Page<CourseCardResponse> findCards(Specification<Course> spec, Pageable pageable);
+
+    /**
+     * Cartes des cours demandés, dans l'ordre de {@code ids} ; les ids supprimés entre-temps sont ignorés.
+     */
+    List<CourseCardResponse> findCardsByIds(List<Long> ids);
+
+    List<CourseCardResponse> findCardsByTeacherId(Long teacherId);
+}
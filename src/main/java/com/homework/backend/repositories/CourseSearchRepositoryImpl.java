@@ -0,0 +1,197 @@
+package com.homework.backend.repositories;
+
+import com.homework.backend.dto.CourseCardResponse;
+import com.homework.backend.dto.CourseCursor;
+import com.homework.backend.models.Category;
+import com.homework.backend.models.Course;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class CourseSearchRepositoryImpl implements CourseSearchRepository {
+
+    // Correspondance plein texte (mots entiers, racinisés) ou trigrammes (mots partiels, fautes de frappe) ;
+    // search_text inclut la description, comme l'ancienne recherche LIKE
+    private static final String KEYWORD_CONDITION = """
+            (c.search_vector @@ websearch_to_tsquery('french', :keyword)
+             OR c.search_text LIKE :keywordPattern)
+            """;
+
+    private static final String CARD_SELECT = """
+            SELECT new com.homework.backend.dto.CourseCardResponse(
+                c.id, c.title, c.description, c.category, c.price, c.city, c.courseDateTime, c.duration,
+                c.maxStudents, c.enrolledStudentsCount, c.createdAt, t.id, t.firstName, t.lastName)
+            FROM Course c JOIN c.teacher t
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<Long> searchIdsByKeyword(String keyword, Category category, String city, Pageable pageable) {
+        Map<String, Object> parameters = new HashMap<>();
+        String where = buildWhere(keyword, null, category, city, parameters);
+
+        Query idQuery = entityManager.createNativeQuery("""
+                SELECT c.id FROM courses c
+                WHERE %s
+                ORDER BY ts_rank_cd(c.search_vector, websearch_to_tsquery('french', :keyword)) DESC,
+                         word_similarity(:keywordLower, c.search_text) DESC,
+                         c.id DESC
+                """.formatted(where), Long.class);
+        parameters.forEach(idQuery::setParameter);
+        idQuery.setParameter("keywordLower", keyword.toLowerCase(Locale.ROOT));
+        if (pageable.isPaged()) {
+            idQuery.setFirstResult((int) pageable.getOffset());
+            idQuery.setMaxResults(pageable.getPageSize());
+        }
+
+        @SuppressWarnings("unchecked")
+        List<Long> ids = idQuery.getResultList();
+
+        Query countQuery = entityManager.createNativeQuery("SELECT count(*) FROM courses c WHERE " + where, Long.class);
+        parameters.forEach(countQuery::setParameter);
+        long total = ((Number) countQuery.getSingleResult()).longValue();
+
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    @Override
+    public List<CourseCardResponse> scrollCourses(String keyword, String titleContains, Category category, String city,
+                                                  CourseCursor.Order order, CourseCursor after, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        String column = "c." + order.column();
+        StringBuilder where = new StringBuilder(buildWhere(keyword, titleContains, category, city, parameters));
+        where.append(" AND ").append(column).append(" IS NOT NULL");
+        if (after != null) {
+            // Comparaison de lignes : PostgreSQL la résout par un parcours de l'index (clé, id)
+            where.append(" AND (").append(column).append(", c.id) ")
+                    .append(order.ascending() ? ">" : "<")
+                    .append(" (:afterKey, :afterId)");
+            parameters.put("afterKey", after.sortKey());
+            parameters.put("afterId", after.id());
+        }
+        String direction = order.ascending() ? "ASC" : "DESC";
+
+        Query idQuery = entityManager.createNativeQuery("""
+                SELECT c.id FROM courses c
+                WHERE %s
+                ORDER BY %s %s, c.id %s
+                """.formatted(where, column, direction, direction), Long.class);
+        parameters.forEach(idQuery::setParameter);
+        idQuery.setMaxResults(limit);
+
+        @SuppressWarnings("unchecked")
+        List<Long> ids = idQuery.getResultList();
+        return findCardsByIds(ids);
+    }
+
+    @Override
+    public Page<Long> findIds(Specification<Course> spec, Pageable pageable) {
+        CriteriaBuilder criteriaBuilder = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<Long> idCriteria = criteriaBuilder.createQuery(Long.class);
+        Root<Course> root = idCriteria.from(Course.class);
+        idCriteria.select(root.get("id"));
+        Predicate predicate = spec.toPredicate(root, idCriteria, criteriaBuilder);
+        if (predicate != null) {
+            idCriteria.where(predicate);
+        }
+        idCriteria.orderBy(QueryUtils.toOrders(pageable.getSort(), root, criteriaBuilder));
+
+        TypedQuery<Long> idQuery = entityManager.createQuery(idCriteria);
+        if (pageable.isPaged()) {
+            idQuery.setFirstResult((int) pageable.getOffset());
+            idQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<Long> ids = idQuery.getResultList();
+
+        CriteriaQuery<Long> countCriteria = criteriaBuilder.createQuery(Long.class);
+        Root<Course> countRoot = countCriteria.from(Course.class);
+        countCriteria.select(criteriaBuilder.count(countRoot));
+        Predicate countPredicate = spec.toPredicate(countRoot, countCriteria, criteriaBuilder);
+        if (countPredicate != null) {
+            countCriteria.where(countPredicate);
+        }
+        long total = entityManager.createQuery(countCriteria).getSingleResult();
+
+        return new PageImpl<>(ids, pageable, total);
+    }
+
+    @Override
+    public Page<CourseCardResponse> findCards(Specification<Course> spec, Pageable pageable) {
+        Page<Long> ids = findIds(spec, pageable);
+        return new PageImpl<>(findCardsByIds(ids.getContent()), pageable, ids.getTotalElements());
+    }
+
+    @Override
+    public List<CourseCardResponse> findCardsByTeacherId(Long teacherId) {
+        return entityManager.createQuery(CARD_SELECT + " WHERE t.id = :teacherId ORDER BY c.courseDateTime DESC, c.id DESC", CourseCardResponse.class)
+                .setParameter("teacherId", teacherId)
+                .getResultList();
+    }
+
+    private static String buildWhere(String keyword, String titleContains, Category category, String city,
+                                     Map<String, Object> parameters) {
+        StringBuilder where = new StringBuilder("TRUE");
+        if (keyword != null) {
+            where.append(" AND ").append(KEYWORD_CONDITION);
+            parameters.put("keyword", keyword);
+            parameters.put("keywordPattern", containsPattern(keyword));
+        }
+        if (titleContains != null && !titleContains.isEmpty()) {
+            where.append(" AND lower(c.title) LIKE :titlePattern");
+            parameters.put("titlePattern", containsPattern(titleContains));
+        }
+        if (category != null) {
+            where.append(" AND c.category = :category");
+            parameters.put("category", category.name());
+        }
+        if (city != null && !city.isEmpty()) {
+            where.append(" AND lower(c.city) LIKE :cityPattern");
+            parameters.put("cityPattern", containsPattern(city));
+        }
+        return where.toString();
+    }
+
+    // Les cartes sont chargées par id puis remises dans l'ordre de la requête
+    @Override
+    public List<CourseCardResponse> findCardsByIds(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, CourseCardResponse> byId = entityManager
+                .createQuery(CARD_SELECT + " WHERE c.id IN :ids", CourseCardResponse.class)
+                .setParameter("ids", ids)
+                .getResultList()
+                .stream()
+                .collect(Collectors.toMap(CourseCardResponse::id, Function.identity()));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).toList();
+    }
+
+    private static String containsPattern(String value) {
+        String escaped = value.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_");
+        return "%" + escaped + "%";
+    }
+}
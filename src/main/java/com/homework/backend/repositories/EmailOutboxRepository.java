@@ -0,0 +1,119 @@
+package com.homework.backend.repositories;
+
+import com.homework.backend.models.EmailOutboxMessage;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface EmailOutboxRepository extends JpaRepository<EmailOutboxMessage, Long> {
+
+    /**
+     * Messages prêts à partir : en attente et dont l'échéance est passée, ou bloqués en SENDING
+     * avec un bail expiré. SKIP LOCKED : deux instances ne réclament jamais le même message.
+     */
+    @Query(value = """
+            SELECT * FROM email_outbox
+            WHERE (status = 'PENDING' AND next_attempt_at <= :now)
+               OR (status = 'SENDING' AND locked_until < :now)
+            ORDER BY next_attempt_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<EmailOutboxMessage> lockNextBatch(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("""
+            UPDATE EmailOutboxMessage m
+            SET m.status = com.homework.backend.models.EmailOutboxStatus.SENDING,
+                m.lockedUntil = :lockedUntil,
+                m.claimToken = :token,
+                m.attempts = m.attempts + 1
+            WHERE m.id IN :ids
+            """)
+    int markSending(@Param("ids") Collection<Long> ids, @Param("token") UUID token, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    // Les mises à jour suivantes ne touchent que les messages encore réclamés par ce jeton : un message
+    // repris par un autre passage après expiration du bail n'est jamais écrasé par l'ancien
+
+    // Bail repris au début de l'envoi : l'attente dans la file du MailExecutor n'est pas comptée
+    @Modifying
+    @Query("""
+            UPDATE EmailOutboxMessage m
+            SET m.lockedUntil = :lockedUntil
+            WHERE m.id IN :ids
+              AND m.status = com.homework.backend.models.EmailOutboxStatus.SENDING
+              AND m.claimToken = :token
+            """)
+    int renewLease(@Param("ids") Collection<Long> ids, @Param("token") UUID token, @Param("lockedUntil") LocalDateTime lockedUntil);
+
+    @Query("SELECT m.id FROM EmailOutboxMessage m WHERE m.id IN :ids AND m.claimToken = :token")
+    List<Long> findIdsClaimedBy(@Param("ids") Collection<Long> ids, @Param("token") UUID token);
+
+    // Rend des messages réclamés mais non envoyés, sans compter de tentative
+    @Modifying
+    @Query("""
+            UPDATE EmailOutboxMessage m
+            SET m.status = com.homework.backend.models.EmailOutboxStatus.PENDING,
+                m.lockedUntil = null,
+                m.claimToken = null,
+                m.attempts = m.attempts - 1
+            WHERE m.id IN :ids
+              AND m.status = com.homework.backend.models.EmailOutboxStatus.SENDING
+              AND m.claimToken = :token
+            """)
+    int release(@Param("ids") Collection<Long> ids, @Param("token") UUID token);
+
+    @Modifying
+    @Query("""
+            UPDATE EmailOutboxMessage m
+            SET m.status = com.homework.backend.models.EmailOutboxStatus.SENT,
+                m.sentAt = :sentAt,
+                m.lockedUntil = null,
+                m.claimToken = null,
+                m.lastError = null
+            WHERE m.id IN :ids
+              AND m.status = com.homework.backend.models.EmailOutboxStatus.SENDING
+              AND m.claimToken = :token
+            """)
+    int markSent(@Param("ids") Collection<Long> ids, @Param("token") UUID token, @Param("sentAt") LocalDateTime sentAt);
+
+    @Modifying
+    @Query("""
+            UPDATE EmailOutboxMessage m
+            SET m.status = com.homework.backend.models.EmailOutboxStatus.PENDING,
+                m.nextAttemptAt = :nextAttemptAt,
+                m.lockedUntil = null,
+                m.claimToken = null,
+                m.lastError = :error
+            WHERE m.id = :id
+              AND m.status = com.homework.backend.models.EmailOutboxStatus.SENDING
+              AND m.claimToken = :token
+            """)
+    int scheduleRetry(@Param("id") Long id, @Param("token") UUID token, @Param("nextAttemptAt") LocalDateTime nextAttemptAt, @Param("error") String error);
+
+    @Modifying
+    @Query("""
+            UPDATE EmailOutboxMessage m
+            SET m.status = com.homework.backend.models.EmailOutboxStatus.FAILED,
+                m.lockedUntil = null,
+                m.claimToken = null,
+                m.lastError = :error
+            WHERE m.id = :id
+              AND m.status = com.homework.backend.models.EmailOutboxStatus.SENDING
+              AND m.claimToken = :token
+            """)
+    int markFailed(@Param("id") Long id, @Param("token") UUID token, @Param("error") String error);
+
+    @Query("SELECT COUNT(m) FROM EmailOutboxMessage m WHERE m.status = com.homework.backend.models.EmailOutboxStatus.PENDING")
+    long countPending();
+
+    @Modifying
+    @Query("DELETE FROM EmailOutboxMessage m WHERE m.status = com.homework.backend.models.EmailOutboxStatus.SENT AND m.sentAt < :before")
+    int deleteSentBefore(@Param("before") LocalDateTime before);
+}
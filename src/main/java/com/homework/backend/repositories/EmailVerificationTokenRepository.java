@@ -4,6 +4,7 @@ import com.homework.backend.models.EmailVerificationToken;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.LocalDateTime;
 import java.util.Optional;
@@ -11,9 +12,20 @@ import java.util.Optional;
 public interface EmailVerificationTokenRepository extends JpaRepository<EmailVerificationToken, Long> {
     
     Optional<EmailVerificationToken> findByToken(String token);
-    
+
+    /**
+     * Supprime au plus {@code limit} tokens expirés ou déjà utilisés.
+     * SKIP LOCKED : plusieurs instances peuvent purger en parallèle sans s'attendre ni se bloquer.
+     */
     @Modifying
-    @Query("DELETE FROM EmailVerificationToken e WHERE e.expiresAt < ?1")
-    void deleteExpiredTokens(LocalDateTime now);
+    @Query(value = """
+            DELETE FROM email_verification_tokens
+            WHERE id IN (
+                SELECT id FROM email_verification_tokens
+                WHERE expires_at < :now OR used = true
+                LIMIT :limit
+                FOR UPDATE SKIP LOCKED
+            )
+            """, nativeQuery = true)
+    int deleteExpiredOrUsedChunk(@Param("now") LocalDateTime now, @Param("limit") int limit);
 }
-
@@ -0,0 +1,23 @@
+package com.homework.backend.repositories;
+
+import com.homework.backend.dto.EnrollmentPeriod;
+import com.homework.backend.dto.EnrollmentResponse;
+import com.homework.backend.models.EnrollmentStatus;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Inscriptions d'un élève en projection {@link EnrollmentResponse} : cours et formateur sont lus par
+ * jointure dans la même requête, sans charger d'entité.
+ */
+public interface EnrollmentQueryRepository {
+
+    /**
+     * Page des inscriptions de l'élève, filtres facultatifs. Tri : cours les plus proches d'abord pour
+     * {@link EnrollmentPeriod#UPCOMING}, les plus récents d'abord pour {@link EnrollmentPeriod#PAST},
+     * inscriptions les plus récentes d'abord sans filtre de période. Le total n'est compté que si
+     * la page est pleine.
+     */
+    Page<EnrollmentResponse> findResponsesByStudentId(Long studentId, EnrollmentStatus status, EnrollmentPeriod period,
+                                                      Pageable pageable);
+}
@@ -0,0 +1,82 @@
+package com.homework.backend.repositories;
+
+import com.homework.backend.dto.EnrollmentPeriod;
+import com.homework.backend.dto.EnrollmentResponse;
+import com.homework.backend.models.EnrollmentStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+public class EnrollmentQueryRepositoryImpl implements EnrollmentQueryRepository {
+
+    private static final String RESPONSE_SELECT = """
+            SELECT new com.homework.backend.dto.EnrollmentResponse(
+                e.id, e.enrolledAt, e.status,
+                c.id, c.title, c.description, c.category, c.price, c.city, c.courseDateTime, c.duration,
+                c.maxStudents, c.enrolledStudentsCount, c.createdAt,
+                t.id, t.firstName, t.lastName, t.email, t.bio, t.role)
+            FROM Enrollment e JOIN e.course c JOIN c.teacher t
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<EnrollmentResponse> findResponsesByStudentId(Long studentId, EnrollmentStatus status,
+                                                             EnrollmentPeriod period, Pageable pageable) {
+        Map<String, Object> parameters = new HashMap<>();
+        String where = buildWhere(studentId, status, period, parameters);
+
+        TypedQuery<EnrollmentResponse> query = entityManager.createQuery(
+                RESPONSE_SELECT + " WHERE " + where + " ORDER BY " + orderBy(period), EnrollmentResponse.class);
+        parameters.forEach(query::setParameter);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+        List<EnrollmentResponse> content = query.getResultList();
+
+        return PageableExecutionUtils.getPage(content, pageable, () -> {
+            TypedQuery<Long> countQuery = entityManager.createQuery(
+                    "SELECT count(e) FROM Enrollment e JOIN e.course c WHERE " + where, Long.class);
+            parameters.forEach(countQuery::setParameter);
+            return countQuery.getSingleResult();
+        });
+    }
+
+    private static String buildWhere(Long studentId, EnrollmentStatus status, EnrollmentPeriod period,
+                                     Map<String, Object> parameters) {
+        StringBuilder where = new StringBuilder("e.student.id = :studentId");
+        parameters.put("studentId", studentId);
+        if (status != null) {
+            where.append(" AND e.status = :status");
+            parameters.put("status", status);
+        }
+        if (period == EnrollmentPeriod.UPCOMING) {
+            where.append(" AND (c.courseDateTime IS NULL OR c.courseDateTime >= :now)");
+            parameters.put("now", LocalDateTime.now());
+        } else if (period == EnrollmentPeriod.PAST) {
+            where.append(" AND c.courseDateTime < :now");
+            parameters.put("now", LocalDateTime.now());
+        }
+        return where.toString();
+    }
+
+    private static String orderBy(EnrollmentPeriod period) {
+        if (period == null) {
+            return "e.enrolledAt DESC, e.id DESC";
+        }
+        return switch (period) {
+            case UPCOMING -> "c.courseDateTime ASC NULLS LAST, e.id ASC";
+            case PAST -> "c.courseDateTime DESC, e.id DESC";
+        };
+    }
+}
@@ -7,13 +7,13 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 
 @Repository
-public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
+public interface EnrollmentRepository extends JpaRepository<Enrollment, Long>, EnrollmentQueryRepository {
     boolean existsByStudentIdAndCourseIdAndStatusIn(Long studentId, Long courseId, Collection<EnrollmentStatus> statuses);
-    List<Enrollment> findByStudentId(Long studentId);
     long countByCourseIdAndStatusIn(Long courseId, Collection<EnrollmentStatus> statuses);
 
     @Query("""
@@ -24,4 +24,41 @@ public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
             """)
     long countDistinctStudentsByTeacherIdAndStatusIn(@Param("teacherId") Long teacherId,
                                                      @Param("statuses") Collection<EnrollmentStatus> statuses);
+
+    /**
+     * Passe à COMPLETED au plus {@code limit} inscriptions ACTIVE dont le cours est terminé
+     * (date du cours + durée), en une seule requête. SKIP LOCKED : plusieurs instances peuvent
+     * traiter des lots en parallèle, et une inscription en cours d'annulation est laissée de côté.
+     *
+     * @return le nombre d'inscriptions terminées par cours, trié par id de cours
+     */
+    @Query(value = """
+            WITH batch AS (
+                SELECT e.id
+                FROM enrollments e
+                JOIN courses c ON c.id = e.course_id
+                WHERE e.status = 'ACTIVE'
+                  AND c.course_date_time <= :now
+                  AND c.course_date_time + make_interval(mins => COALESCE(c.duration, 0)) <= :now
+                LIMIT :limit
+                FOR UPDATE OF e SKIP LOCKED
+            ), completed AS (
+                UPDATE enrollments e
+                SET status = 'COMPLETED'
+                FROM batch
+                WHERE e.id = batch.id AND e.status = 'ACTIVE'
+                RETURNING e.course_id
+            )
+            SELECT course_id AS "courseId", COUNT(*) AS "completed"
+            FROM completed
+            GROUP BY course_id
+            ORDER BY course_id
+            """, nativeQuery = true)
+    List<CompletedByCourse> completeFinishedChunk(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    interface CompletedByCourse {
+        Long getCourseId();
+
+        long getCompleted();
+    }
 }
@@ -0,0 +1,25 @@
+package com.homework.backend.repositories;
+
+import com.homework.backend.models.OAuth2LoginCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface OAuth2LoginCodeRepository extends JpaRepository<OAuth2LoginCode, Long> {
+
+    @Query("SELECT c FROM OAuth2LoginCode c JOIN FETCH c.user WHERE c.codeHash = :codeHash")
+    Optional<OAuth2LoginCode> findByCodeHash(@Param("codeHash") String codeHash);
+
+    // Consomme le code : une seule requête concurrente obtient 1
+    @Modifying
+    @Query("DELETE FROM OAuth2LoginCode c WHERE c.id = :id")
+    int consume(@Param("id") Long id);
+
+    @Modifying
+    @Query("DELETE FROM OAuth2LoginCode c WHERE c.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
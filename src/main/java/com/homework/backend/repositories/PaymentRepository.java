@@ -3,6 +3,7 @@ package com.homework.backend.repositories;
 import com.homework.backend.models.Payment;
 import com.homework.backend.models.PaymentStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
@@ -17,6 +18,10 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByIdAndStudentId(Long paymentId, Long studentId);
     boolean existsByCourseIdAndStudentIdAndStatusIn(Long courseId, Long studentId, Collection<com.homework.backend.models.PaymentStatus> statuses);
 
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :status, p.updatedAt = CURRENT_TIMESTAMP WHERE p.id = :paymentId")
+    int updateStatus(@Param("paymentId") Long paymentId, @Param("status") PaymentStatus status);
+
     @Query("""
             SELECT COALESCE(SUM(p.teacherAmount), 0)
             FROM Payment p
@@ -0,0 +1,24 @@
+package com.homework.backend.repositories;
+
+import com.homework.backend.models.RevokedAccessToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface RevokedAccessTokenRepository extends JpaRepository<RevokedAccessToken, Long> {
+
+    List<RevokedAccessToken> findByExpiresAtAfter(LocalDateTime now);
+
+    // Révocations récentes, y compris celles faites par les autres instances
+    List<RevokedAccessToken> findByRevokedAtAfterAndExpiresAtAfter(LocalDateTime since, LocalDateTime now);
+
+    boolean existsByJti(String jti);
+
+    @Modifying
+    @Query("DELETE FROM RevokedAccessToken r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,90 @@
+package com.homework.backend.repositories;
+
+import com.homework.backend.models.SeatHold;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+public interface SeatHoldRepository extends JpaRepository<SeatHold, Long> {
+
+    // Holds expirés parmi ceux donnés ; ceux en cours de traitement par une autre instance sont ignorés
+    @Query(value = """
+            SELECT * FROM seat_holds
+            WHERE id IN (:ids) AND expires_at <= :now
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<SeatHold> lockExpiredByIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query(value = """
+            SELECT * FROM seat_holds
+            WHERE expires_at <= :now
+            ORDER BY expires_at
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    List<SeatHold> lockExpired(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    @Modifying
+    @Query("DELETE FROM SeatHold h WHERE h.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    // 1 si le hold existait encore : la place retenue revient à l'appelant
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SeatHold h WHERE h.payment.id = :paymentId")
+    int deleteByPaymentId(@Param("paymentId") Long paymentId);
+
+    // Place proposée à l'élève promu de la liste d'attente, verrouillée le temps d'y rattacher son paiement
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT h FROM SeatHold h WHERE h.course.id = :courseId AND h.student.id = :studentId AND h.payment IS NULL")
+    Optional<SeatHold> lockOffer(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
+
+    boolean existsByCourseIdAndStudentIdAndPaymentIsNull(Long courseId, Long studentId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM SeatHold h WHERE h.course.id = :courseId AND h.student.id = :studentId AND h.payment IS NULL")
+    int deleteOffer(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
+
+    /**
+     * Supprime les places proposées (sans paiement) des cours terminés.
+     *
+     * @return le nombre de places supprimées par cours, trié par id de cours, pour rendre les compteurs
+     */
+    @Query(value = """
+            WITH released AS (
+                DELETE FROM seat_holds h
+                USING courses c
+                WHERE c.id = h.course_id
+                  AND h.payment_id IS NULL
+                  AND c.course_date_time + make_interval(mins => COALESCE(c.duration, 0)) <= :now
+                RETURNING h.course_id
+            )
+            SELECT course_id AS "courseId", COUNT(*) AS "released"
+            FROM released
+            GROUP BY course_id
+            ORDER BY course_id
+            """, nativeQuery = true)
+    List<ReleasedByCourse> deleteOffersForEndedCourses(@Param("now") LocalDateTime now);
+
+    @Query("SELECT h.id AS id, h.expiresAt AS expiresAt FROM SeatHold h")
+    List<PendingHold> findAllPending();
+
+    interface ReleasedByCourse {
+        Long getCourseId();
+
+        long getReleased();
+    }
+
+    interface PendingHold {
+        Long getId();
+
+        LocalDateTime getExpiresAt();
+    }
+}
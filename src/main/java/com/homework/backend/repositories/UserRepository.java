@@ -2,8 +2,26 @@ package com.homework.backend.repositories;
 
 import com.homework.backend.models.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
 import java.util.Optional;
 
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
+
+    // Version courante des tokens d'un compte actif (vide si le compte n'existe plus ou est désactivé)
+    @Query("SELECT u.tokenVersion FROM User u WHERE u.id = :id AND u.verifiedEmail = true")
+    Optional<Integer> findActiveTokenVersionById(@Param("id") Long id);
+
+    @Modifying
+    @Query("UPDATE User u SET u.tokenVersion = u.tokenVersion + 1 WHERE u.id = :id")
+    int incrementTokenVersion(@Param("id") Long id);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE User u SET u.password = :password WHERE u.id = :id")
+    int updatePassword(@Param("id") Long id, @Param("password") String password);
 }
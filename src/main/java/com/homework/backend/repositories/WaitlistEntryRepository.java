@@ -0,0 +1,66 @@
+package com.homework.backend.repositories;
+
+import com.homework.backend.models.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    boolean existsByCourseIdAndStudentId(Long courseId, Long studentId);
+
+    Optional<WaitlistEntry> findByCourseIdAndStudentId(Long courseId, Long studentId);
+
+    long countByCourseId(Long courseId);
+
+    boolean existsByCourseId(Long courseId);
+
+    // D'autres élèves attendent : une place libre leur revient avant cet élève
+    boolean existsByCourseIdAndStudentIdNot(Long courseId, Long studentId);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM WaitlistEntry w WHERE w.course.id = :courseId AND w.student.id = :studentId")
+    int deleteByCourseIdAndStudentId(@Param("courseId") Long courseId, @Param("studentId") Long studentId);
+
+    // Rang dans la file (1 = prochain promu) : comptage sur l'index (course_id, created_at, id)
+    @Query(value = """
+            SELECT count(*) FROM waitlist_entries w
+            JOIN waitlist_entries me ON me.id = :entryId
+            WHERE w.course_id = me.course_id AND (w.created_at, w.id) <= (me.created_at, me.id)
+            """, nativeQuery = true)
+    long findPosition(@Param("entryId") Long entryId);
+
+    // Tête de file ; une entrée en cours de promotion par une autre transaction est sautée
+    @Query(value = """
+            SELECT * FROM waitlist_entries
+            WHERE course_id = :courseId
+            ORDER BY created_at, id
+            LIMIT 1
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<WaitlistEntry> lockHead(@Param("courseId") Long courseId);
+
+    // Cours non terminés dont la file n'est pas vide alors qu'il reste des places (places retenues comprises)
+    @Query(value = """
+            SELECT c.id FROM courses c
+            WHERE EXISTS (SELECT 1 FROM waitlist_entries w WHERE w.course_id = c.id)
+              AND (c.max_students IS NULL OR c.active_enrollment_count + c.held_seat_count < c.max_students)
+              AND c.course_date_time + make_interval(mins => COALESCE(c.duration, 0)) > :now
+            """, nativeQuery = true)
+    List<Long> findCourseIdsWithFreeSeatsAndWaiters(@Param("now") LocalDateTime now);
+
+    // Files d'attente des cours terminés : plus aucune place ne leur sera proposée
+    @Modifying
+    @Query(value = """
+            DELETE FROM waitlist_entries w
+            USING courses c
+            WHERE c.id = w.course_id
+              AND c.course_date_time + make_interval(mins => COALESCE(c.duration, 0)) <= :now
+            """, nativeQuery = true)
+    int deleteForEndedCourses(@Param("now") LocalDateTime now);
+}
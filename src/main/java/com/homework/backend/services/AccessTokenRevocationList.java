@@ -0,0 +1,123 @@
+package com.homework.backend.services;
+
+import com.homework.backend.models.RevokedAccessToken;
+import com.homework.backend.repositories.RevokedAccessTokenRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Liste des tokens d'accès révoqués (par "jti"), consultée à chaque requête authentifiée.
+ * Un filtre de Bloom répond "non révoqué" sans aucun accès mémoire partagé coûteux dans
+ * l'immense majorité des cas ; l'ensemble exact ne sert qu'à confirmer les positifs.
+ * La liste est reconstruite depuis la base au démarrage et resynchronisée périodiquement
+ * pour prendre en compte les révocations faites par les autres instances.
+ */
+@Service
+public class AccessTokenRevocationList {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenRevocationList.class);
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+    private static final int MIN_CAPACITY = 1024;
+    // Recouvrement de la synchronisation, pour tolérer les décalages d'horloge entre instances
+    private static final long SYNC_OVERLAP_SECONDS = 60;
+
+    private final RevokedAccessTokenRepository revokedAccessTokenRepository;
+
+    // jti -> expiration du token ; l'entrée devient inutile après l'expiration
+    private volatile Map<String, LocalDateTime> revoked = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloomFilter = new BloomFilter(MIN_CAPACITY, FALSE_POSITIVE_RATE);
+    private volatile LocalDateTime lastSync = LocalDateTime.now();
+
+    public AccessTokenRevocationList(RevokedAccessTokenRepository revokedAccessTokenRepository, MeterRegistry meterRegistry) {
+        this.revokedAccessTokenRepository = revokedAccessTokenRepository;
+        Gauge.builder("jwt.revoked-tokens", this, list -> list.revoked.size())
+                .description("Tokens d'accès révoqués et non expirés connus de cette instance")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void load() {
+        rebuild();
+    }
+
+    public boolean isRevoked(String jti) {
+        if (jti == null || !bloomFilter.mightContain(jti)) {
+            return false;
+        }
+        return revoked.containsKey(jti);
+    }
+
+    @Transactional
+    public void revoke(String jti, LocalDateTime expiresAt) {
+        if (jti == null || expiresAt.isBefore(LocalDateTime.now()) || revokedAccessTokenRepository.existsByJti(jti)) {
+            return;
+        }
+        revokedAccessTokenRepository.save(RevokedAccessToken.builder()
+                .jti(jti)
+                .expiresAt(expiresAt)
+                .revokedAt(LocalDateTime.now())
+                .build());
+        addLocally(jti, expiresAt);
+    }
+
+    @Scheduled(fixedDelay = 15_000)
+    public void syncFromDatabase() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedAccessToken> recent = revokedAccessTokenRepository.findByRevokedAtAfterAndExpiresAtAfter(
+                lastSync.minusSeconds(SYNC_OVERLAP_SECONDS), now);
+        recent.forEach(token -> addLocally(token.getJti(), token.getExpiresAt()));
+        lastSync = now;
+    }
+
+    /**
+     * Un filtre de Bloom ne supporte pas la suppression : on le reconstruit régulièrement
+     * à partir des seules révocations non expirées, et on purge la table.
+     */
+    @Scheduled(fixedDelay = 600_000, initialDelay = 600_000)
+    @Transactional
+    public void purgeExpired() {
+        int deleted = revokedAccessTokenRepository.deleteExpired(LocalDateTime.now());
+        rebuild();
+        log.debug("Révocations expirées purgées : {}", deleted);
+    }
+
+    private synchronized void rebuild() {
+        LocalDateTime now = LocalDateTime.now();
+        List<RevokedAccessToken> active = revokedAccessTokenRepository.findByExpiresAtAfter(now);
+
+        Map<String, LocalDateTime> entries = new ConcurrentHashMap<>();
+        active.forEach(token -> entries.put(token.getJti(), token.getExpiresAt()));
+        // On conserve aussi les révocations locales pas encore visibles en base (transaction en cours)
+        revoked.forEach((jti, expiresAt) -> {
+            if (expiresAt.isAfter(now)) {
+                entries.putIfAbsent(jti, expiresAt);
+            }
+        });
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(MIN_CAPACITY, entries.size() * 2), FALSE_POSITIVE_RATE);
+        entries.keySet().forEach(rebuilt::add);
+
+        // Filtre publié avant l'ensemble exact, pour ne jamais produire de faux négatif
+        bloomFilter = rebuilt;
+        revoked = entries;
+        lastSync = now;
+        log.info("Liste de révocation des JWT chargée : {} token(s) révoqué(s)", entries.size());
+    }
+
+    private synchronized void addLocally(String jti, LocalDateTime expiresAt) {
+        // Le filtre d'abord : un lecteur qui voit le jti dans l'ensemble exact doit aussi le voir dans le filtre
+        bloomFilter.add(jti);
+        revoked.put(jti, expiresAt);
+    }
+}
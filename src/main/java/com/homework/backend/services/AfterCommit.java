@@ -0,0 +1,28 @@
+package com.homework.backend.services;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Exécute une action après le commit de la transaction courante, ou tout de suite hors transaction.
+ * Un cache invalidé avant et après le commit ne peut pas être re-rempli avec l'ancienne version par
+ * une lecture concurrente.
+ */
+final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.RateLimitProperties;
+import com.homework.backend.exceptions.TooManyRequestsException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limite les tentatives de connexion (par IP et par email ciblé) et d'inscription (par IP)
+ * avant tout travail coûteux (BCrypt, requêtes SQL).
+ */
+@Service
+public class AuthRateLimiter {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthRateLimiter.class);
+
+    private final RateLimitProperties properties;
+    private final TokenBucketLimiter loginByIp;
+    private final TokenBucketLimiter loginByEmail;
+    private final TokenBucketLimiter registerByIp;
+
+    private final Counter loginAllowed;
+    private final Counter loginRejected;
+    private final Counter registerAllowed;
+    private final Counter registerRejected;
+
+    public AuthRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.loginByIp = limiterFor(properties.getLoginIp());
+        this.loginByEmail = limiterFor(properties.getLoginEmail());
+        this.registerByIp = limiterFor(properties.getRegisterIp());
+
+        this.loginAllowed = decisionCounter(meterRegistry, "login", "allowed");
+        this.loginRejected = decisionCounter(meterRegistry, "login", "rejected");
+        this.registerAllowed = decisionCounter(meterRegistry, "register", "allowed");
+        this.registerRejected = decisionCounter(meterRegistry, "register", "rejected");
+
+        Gauge.builder("auth.rate-limit.keys", this, AuthRateLimiter::trackedKeys)
+                .description("Nombre de clés (IP, emails) suivies par le limiteur")
+                .register(meterRegistry);
+    }
+
+    public void checkLogin(String clientIp, String email) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long now = System.nanoTime();
+        long waitNanos = loginByIp.tryAcquire(clientIp, now);
+        if (waitNanos == 0 && email != null) {
+            waitNanos = loginByEmail.tryAcquire(email.trim().toLowerCase(Locale.ROOT), now);
+        }
+        if (waitNanos > 0) {
+            loginRejected.increment();
+            throw new TooManyRequestsException("Trop de tentatives de connexion. Veuillez réessayer plus tard.", toRetryAfterSeconds(waitNanos));
+        }
+        loginAllowed.increment();
+    }
+
+    public void checkRegister(String clientIp) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long waitNanos = registerByIp.tryAcquire(clientIp, System.nanoTime());
+        if (waitNanos > 0) {
+            registerRejected.increment();
+            throw new TooManyRequestsException("Trop de tentatives d'inscription. Veuillez réessayer plus tard.", toRetryAfterSeconds(waitNanos));
+        }
+        registerAllowed.increment();
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void evictIdleKeys() {
+        long now = System.nanoTime();
+        long idleNanos = properties.getIdleEviction().toNanos();
+        int evicted = loginByIp.evictIdle(now, idleNanos)
+                + loginByEmail.evictIdle(now, idleNanos)
+                + registerByIp.evictIdle(now, idleNanos);
+        if (evicted > 0) {
+            log.debug("Limiteur d'authentification : {} clés inactives supprimées", evicted);
+        }
+    }
+
+    private int trackedKeys() {
+        return loginByIp.size() + loginByEmail.size() + registerByIp.size();
+    }
+
+    private static TokenBucketLimiter limiterFor(RateLimitProperties.Bucket bucket) {
+        return new TokenBucketLimiter(bucket.getCapacity(), bucket.getRefillPeriod().toNanos());
+    }
+
+    private static Counter decisionCounter(MeterRegistry meterRegistry, String endpoint, String result) {
+        return Counter.builder("auth.rate-limit.decisions")
+                .tag("endpoint", endpoint)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static long toRetryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos) + 1);
+    }
+}
@@ -1,17 +1,22 @@
 package com.homework.backend.services;
 
+import com.homework.backend.config.props.JwtProperties;
 import com.homework.backend.dto.LoginRequest;
+import com.homework.backend.dto.LoginResponse;
 import com.homework.backend.dto.RegisterRequest;
+import com.homework.backend.exceptions.ServiceOverloadedException;
 import com.homework.backend.models.EmailVerificationToken;
 import com.homework.backend.models.User;
 import com.homework.backend.repositories.EmailVerificationTokenRepository;
 import com.homework.backend.repositories.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.scheduling.annotation.Async;
-import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
@@ -19,22 +24,31 @@ import java.util.concurrent.CompletableFuture;
 @Service
 public class AuthService {
 
+    private static final Logger log = LoggerFactory.getLogger(AuthService.class);
+
     private final UserRepository userRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHashingService passwordHashingService;
     private final JwtService jwtService;
-    private final AuthenticationManager authenticationManager;
     private final EmailService emailService;
     private final EmailVerificationTokenRepository emailVerificationTokenRepository;
+    private final JwtProperties jwtProperties;
+    private final CachedUserDetailsService userDetailsService;
+    private final RefreshTokenService refreshTokenService;
+    private final TransactionTemplate transactionTemplate;
 
-    public AuthService(UserRepository userRepository, PasswordEncoder passwordEncoder, JwtService jwtService, AuthenticationManager authenticationManager, EmailService emailService, EmailVerificationTokenRepository emailVerificationTokenRepository) {
+    public AuthService(UserRepository userRepository, PasswordHashingService passwordHashingService, JwtService jwtService, EmailService emailService, EmailVerificationTokenRepository emailVerificationTokenRepository, JwtProperties jwtProperties, CachedUserDetailsService userDetailsService, RefreshTokenService refreshTokenService, PlatformTransactionManager transactionManager) {
         this.userRepository = userRepository;
-        this.passwordEncoder = passwordEncoder;
+        this.passwordHashingService = passwordHashingService;
         this.jwtService = jwtService;
-        this.authenticationManager = authenticationManager;
         this.emailService = emailService;
         this.emailVerificationTokenRepository = emailVerificationTokenRepository;
+        this.jwtProperties = jwtProperties;
+        this.userDetailsService = userDetailsService;
+        this.refreshTokenService = refreshTokenService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
     }
 
+    // Pas de @Transactional : BCrypt attend le pool dédié sans immobiliser de connexion à la base
     public CompletableFuture<User> register(RegisterRequest registerRequest) {
         if (userRepository.findByEmail(registerRequest.email()).isPresent()) {
             throw new IllegalArgumentException("Un utilisateur avec cet email existe déjà.");
@@ -44,11 +58,15 @@ public class AuthService {
                 .firstName(registerRequest.firstName())
                 .lastName(registerRequest.lastName())
                 .email(registerRequest.email())
-                .password(passwordEncoder.encode(registerRequest.password()))
+                .password(passwordHashingService.encode(registerRequest.password()))
                 .role(registerRequest.role())
                 .verifiedEmail(true) // Temporaire car Render bloque l'envoi d'emails de confirmation
                 .build();
 
+        return CompletableFuture.completedFuture(transactionTemplate.execute(status -> saveNewUser(user)));
+    }
+
+    private User saveNewUser(User user) {
         User savedUser = userRepository.save(user);
 
         // Token dans transaction DB
@@ -60,29 +78,86 @@ public class AuthService {
                 .build();
         emailVerificationTokenRepository.save(verificationToken);
 
-        // ✅ EMAIL ASYNC (non-bloquant)
-        sendVerificationEmailAsync(savedUser.getEmail(), token, savedUser.getFirstName());
+        // Email déposé dans l'outbox, dans la même transaction que l'utilisateur et son token
+        emailService.sendVerificationEmail(savedUser.getEmail(), token, savedUser.getFirstName());
 
-        return CompletableFuture.completedFuture(savedUser);
+        return savedUser;
     }
 
 
-    public String login(LoginRequest loginRequest) {
-        User user = userRepository.findByEmail(loginRequest.email())
-                .orElseThrow(() -> new IllegalArgumentException("Email ou mot de passe invalide."));
+    public LoginResponse login(LoginRequest loginRequest) {
+        // Une seule recherche de l'utilisateur (via le cache), puis BCrypt sur le pool dédié
+        User user = findUserForLogin(loginRequest.email());
 
         if (!user.getVerifiedEmail()) {
             throw new IllegalStateException("Veuillez vérifier votre adresse email avant de vous connecter.");
         }
 
-        authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(
-                        loginRequest.email(),
-                        loginRequest.password()
-                )
-        );
+        if (!passwordHashingService.matches(loginRequest.password(), user.getPassword())) {
+            throw new IllegalArgumentException("Email ou mot de passe invalide.");
+        }
+
+        if (passwordHashingService.needsUpgrade(user.getPassword())) {
+            upgradePasswordHash(user, loginRequest.password());
+        }
+
+        return issueTokens(user);
+    }
+
+    /**
+     * Échange un refresh token (à usage unique) contre une nouvelle paire de tokens.
+     */
+    public LoginResponse refresh(String refreshToken) {
+        User user = refreshTokenService.consume(refreshToken);
+        return issueTokens(user);
+    }
 
-        return jwtService.generateToken(user);
+    /**
+     * Échange le code à usage unique de la redirection Google contre une paire de tokens.
+     */
+    public LoginResponse exchangeLoginCode(String code) {
+        User user = refreshTokenService.consumeLoginCode(code);
+        return issueTokens(user);
+    }
+
+    public void logout(String refreshToken, String accessToken) {
+        if (refreshToken != null) {
+            refreshTokenService.revoke(refreshToken);
+        }
+        if (accessToken != null) {
+            jwtService.revoke(accessToken);
+        }
+    }
+
+    public LoginResponse issueTokens(User user) {
+        return new LoginResponse(jwtService.generateToken(user), refreshTokenService.issue(user));
+    }
+
+    private User findUserForLogin(String email) {
+        try {
+            return (User) userDetailsService.loadUserByUsername(email);
+        } catch (UsernameNotFoundException e) {
+            throw new IllegalArgumentException("Email ou mot de passe invalide.");
+        }
+    }
+
+    // Ré-encode un hash produit avec un coût BCrypt inférieur au coût calibré actuel
+    private void upgradePasswordHash(User user, String rawPassword) {
+        try {
+            userRepository.updatePassword(user.getId(), passwordHashingService.encode(rawPassword));
+            userDetailsService.evict(user.getEmail());
+        } catch (ServiceOverloadedException e) {
+            // Pool saturé : la connexion réussit quand même, le hash sera mis à jour à la prochaine connexion
+            log.debug("Mise à jour du hash reportée pour l'utilisateur {}", user.getId());
+        }
+    }
+
+    public User getProfile(User principal) {
+        // En mode CLAIMS, le principal ne contient que les champs du token : on recharge le profil complet
+        if (jwtProperties.getAuthMode() == JwtProperties.AuthMode.CLAIMS) {
+            return userRepository.findById(principal.getId()).orElse(principal);
+        }
+        return principal;
     }
 
     @Async
@@ -111,22 +186,10 @@ public class AuthService {
         // Verify the user
         user.setVerifiedEmail(true);
         userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
 
         // Mark token as used
         verificationToken.setUsed(true);
         emailVerificationTokenRepository.save(verificationToken);
     }
-
-    @Async("emailExecutor")  // ✅ Thread dédié, non-bloquant
-    public CompletableFuture<Void> sendVerificationEmailAsync(String email, String token, String firstName) {
-        return CompletableFuture.runAsync(() -> {
-            try {
-                emailService.sendVerificationEmail(email, token, firstName);
-            } catch (Exception e) {
-                // Log erreur mais ne crash pas
-                System.err.println("Email échoué pour " + email + ": " + e.getMessage());
-                // Option : retry ou queue
-            }
-        });
-    }
-}
\ No newline at end of file
+}
@@ -0,0 +1,54 @@
+package com.homework.backend.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.homework.backend.config.props.UserCacheProperties;
+import com.homework.backend.models.User;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.util.function.Function;
+
+/**
+ * Cache borné (W-TinyLFU + TTL) devant le chargement des utilisateurs par email.
+ * Utilisé par le filtre JWT, l'intercepteur STOMP et l'authentification par mot de passe.
+ * Toute modification d'un utilisateur doit appeler {@link #evict(String)}.
+ */
+public class CachedUserDetailsService implements UserDetailsService {
+
+    private final LoadingCache<String, User> users;
+
+    public CachedUserDetailsService(Function<String, User> loader, UserCacheProperties properties, MeterRegistry meterRegistry) {
+        this.users = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build(loader::apply);
+        CaffeineCacheMetrics.monitor(meterRegistry, users, "users.details");
+    }
+
+    @Override
+    public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
+        return users.get(username);
+    }
+
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        users.invalidate(email);
+        AfterCommit.run(() -> users.invalidate(email));
+    }
+
+    public void evictById(Long userId) {
+        removeById(userId);
+        AfterCommit.run(() -> removeById(userId));
+    }
+
+    private void removeById(Long userId) {
+        users.asMap().values().removeIf(user -> user.getId().equals(userId));
+    }
+}
@@ -0,0 +1,60 @@
+package com.homework.backend.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.homework.backend.config.props.CourseCacheProperties;
+import com.homework.backend.dto.CourseDetailResponse;
+import com.homework.backend.repositories.CourseRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+
+/**
+ * Cache borné des fiches de cours (GET /courses/{id}).
+ * Les chargements concurrents d'un même id sont regroupés : une rafale de requêtes sur un cours
+ * absent du cache ne déclenche qu'une seule requête SQL, les autres attendent son résultat.
+ * Toute modification d'un cours, de son formateur ou de ses inscriptions doit appeler {@link #evict(Long)}.
+ */
+@Service
+public class CourseDetailCache {
+
+    private final LoadingCache<Long, CourseDetailResponse> courses;
+
+    public CourseDetailCache(CourseRepository courseRepository, CourseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.courses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                // null (cours inexistant) n'est pas mis en cache
+                .build(id -> courseRepository.findDetailById(id).orElse(null));
+        CaffeineCacheMetrics.monitor(meterRegistry, courses, "courses.details");
+    }
+
+    /**
+     * @return la fiche du cours, ou null s'il n'existe pas
+     */
+    public CourseDetailResponse get(Long courseId) {
+        return courses.get(courseId);
+    }
+
+    public void evict(Long courseId) {
+        if (courseId == null) {
+            return;
+        }
+        courses.invalidate(courseId);
+        AfterCommit.run(() -> courses.invalidate(courseId));
+    }
+
+    // Le nom et la présentation du formateur font partie de la fiche
+    public void evictByTeacher(Long teacherId) {
+        courses.asMap().values().stream()
+                .filter(course -> course.teacher().id().equals(teacherId))
+                .map(CourseDetailResponse::id)
+                .toList()
+                .forEach(this::evict);
+    }
+
+    public void evictAll() {
+        courses.invalidateAll();
+    }
+}
@@ -0,0 +1,384 @@
+package com.homework.backend.services;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.homework.backend.config.props.CourseImportProperties;
+import com.homework.backend.dto.CourseImportReport;
+import com.homework.backend.dto.CourseImportReport.RowResult;
+import com.homework.backend.dto.CourseImportReport.RowStatus;
+import com.homework.backend.dto.CourseRequest;
+import com.homework.backend.dto.CourseSuggestionSource;
+import com.homework.backend.exceptions.InvalidImportFileException;
+import com.homework.backend.models.Category;
+import com.homework.backend.models.Course;
+import com.homework.backend.models.Role;
+import com.homework.backend.models.User;
+import com.homework.backend.repositories.CourseRepository;
+import com.homework.backend.repositories.UserRepository;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * Import de cours en masse (POST /courses/import), depuis un tableau JSON ou un fichier CSV lus en flux.
+ * Chaque ligne est validée comme un {@link CourseRequest} ; les lignes valides sont insérées par lots,
+ * une transaction par lot. Une ligne invalide n'empêche pas l'import des autres.
+ */
+@Service
+public class CourseImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseImportService.class);
+
+    // En-tête CSV attendu (ordre libre, casse ignorée) ; les colonnes absentes valent null
+    private static final List<String> CSV_COLUMNS = List.of(
+            "title", "description", "category", "price", "courseDateTime", "city", "duration", "maxStudents");
+
+    private final CourseRepository courseRepository;
+    private final UserRepository userRepository;
+    private final CourseSearchCache courseSearchCache;
+    private final CourseSuggestionIndex courseSuggestionIndex;
+    private final CourseImportProperties properties;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    public CourseImportService(CourseRepository courseRepository,
+                               UserRepository userRepository,
+                               CourseSearchCache courseSearchCache,
+                               CourseSuggestionIndex courseSuggestionIndex,
+                               CourseImportProperties properties,
+                               Validator validator,
+                               ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager) {
+        this.courseRepository = courseRepository;
+        this.userRepository = userRepository;
+        this.courseSearchCache = courseSearchCache;
+        this.courseSuggestionIndex = courseSuggestionIndex;
+        this.properties = properties;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public CourseImportReport importJson(InputStream body, User teacher, boolean dryRun) {
+        ImportRun run = new ImportRun(teacher, dryRun);
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new InvalidImportFileException("Le corps de la requête doit être un tableau JSON de cours.");
+            }
+            JsonToken token;
+            while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+                if (token == null) {
+                    throw new InvalidImportFileException("Tableau JSON incomplet.");
+                }
+                if (run.isFull()) {
+                    run.truncated = true;
+                    break;
+                }
+                // Lecture de la ligne en arbre : une erreur de type n'interrompt pas la lecture du tableau
+                JsonNode node = parser.readValueAsTree();
+                try {
+                    run.add(objectMapper.treeToValue(node, CourseRequest.class));
+                } catch (JsonProcessingException e) {
+                    run.reject("Ligne illisible : " + e.getOriginalMessage());
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new InvalidImportFileException("JSON invalide : " + e.getOriginalMessage(), e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return run.finish();
+    }
+
+    /**
+     * CSV avec en-tête, séparateur virgule ou point-virgule (détecté sur l'en-tête), encodé en UTF-8.
+     * Dates au format ISO (2025-09-01T18:30).
+     */
+    public CourseImportReport importCsv(InputStream body, User teacher, boolean dryRun) {
+        ImportRun run = new ImportRun(teacher, dryRun);
+        try (CsvReader reader = CsvReader.open(body)) {
+            Map<String, Integer> columns = readHeader(reader.next());
+            List<String> record;
+            while ((record = reader.next()) != null) {
+                if (record.size() == 1 && record.get(0).isBlank()) {
+                    continue;
+                }
+                if (run.isFull()) {
+                    run.truncated = true;
+                    break;
+                }
+                try {
+                    run.add(toCourseRequest(record, columns));
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    run.reject(e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return run.finish();
+    }
+
+    private static Map<String, Integer> readHeader(List<String> header) {
+        if (header == null) {
+            throw new InvalidImportFileException("Fichier CSV vide.");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i).replace("\uFEFF", "").trim();
+            for (String column : CSV_COLUMNS) {
+                if (column.equalsIgnoreCase(name) && columns.put(column, i) != null) {
+                    throw new InvalidImportFileException("Colonne CSV en double : " + column + ".");
+                }
+            }
+        }
+        if (!columns.containsKey("title")) {
+            throw new InvalidImportFileException("En-tête CSV invalide : colonnes attendues " + String.join(", ", CSV_COLUMNS) + ".");
+        }
+        return columns;
+    }
+
+    private static CourseRequest toCourseRequest(List<String> record, Map<String, Integer> columns) {
+        return new CourseRequest(
+                field(record, columns, "title"),
+                field(record, columns, "description"),
+                parse(field(record, columns, "category"), value -> Category.valueOf(value.toUpperCase(Locale.ROOT)), "Catégorie inconnue"),
+                parse(field(record, columns, "price"), value -> new BigDecimal(value.replace(',', '.')), "Prix invalide"),
+                parse(field(record, columns, "courseDateTime"), LocalDateTime::parse, "Date invalide (format attendu 2025-09-01T18:30)"),
+                field(record, columns, "city"),
+                parse(field(record, columns, "duration"), Integer::valueOf, "Durée invalide"),
+                parse(field(record, columns, "maxStudents"), Integer::valueOf, "Capacité invalide")
+        );
+    }
+
+    private static String field(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser, String error) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalArgumentException(error + " : " + value);
+        }
+    }
+
+    /**
+     * État d'un import : rapport en cours de construction et lot de lignes valides en attente d'insertion.
+     */
+    private final class ImportRun {
+
+        private final User teacher;
+        private final boolean dryRun;
+        private final List<RowResult> results = new ArrayList<>();
+        private final List<Integer> pendingRows = new ArrayList<>();
+        private final List<Course> pendingCourses = new ArrayList<>();
+        private int accepted;
+        private int rejected;
+        private boolean truncated;
+
+        private ImportRun(User teacher, boolean dryRun) {
+            if (teacher.getRole() != Role.TEACHER) {
+                throw new SecurityException("Seul un formateur peut importer des cours.");
+            }
+            // Nom complet indexé pour l'auto-complétion avec chaque cours créé
+            this.teacher = dryRun ? teacher : CourseService.loadTeacher(userRepository, teacher);
+            this.dryRun = dryRun;
+        }
+
+        boolean isFull() {
+            return results.size() >= properties.getMaxRows();
+        }
+
+        void add(CourseRequest request) {
+            if (request == null) {
+                reject("Ligne vide.");
+                return;
+            }
+            Set<ConstraintViolation<CourseRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                results.add(new RowResult(results.size() + 1, RowStatus.REJECTED, null, violations.stream()
+                        .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                        .map(violation -> violation.getPropertyPath() + " : " + violation.getMessage())
+                        .toList()));
+                rejected++;
+                return;
+            }
+            if (dryRun) {
+                results.add(new RowResult(results.size() + 1, RowStatus.VALID, null, List.of()));
+                accepted++;
+                return;
+            }
+            // Emplacement réservé, rempli après l'insertion du lot
+            results.add(null);
+            pendingRows.add(results.size() - 1);
+            pendingCourses.add(CourseService.newCourse(request, teacher));
+            if (pendingCourses.size() >= properties.getBatchSize()) {
+                flush();
+            }
+        }
+
+        void reject(String error) {
+            results.add(new RowResult(results.size() + 1, RowStatus.REJECTED, null, List.of(error)));
+            rejected++;
+        }
+
+        private void flush() {
+            if (pendingCourses.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    courseRepository.saveAll(pendingCourses);
+                    courseSearchCache.bumpCatalogVersion();
+                    pendingCourses.forEach(course -> courseSuggestionIndex.index(CourseSuggestionSource.from(course)));
+                });
+                for (int i = 0; i < pendingRows.size(); i++) {
+                    int index = pendingRows.get(i);
+                    results.set(index, new RowResult(index + 1, RowStatus.CREATED, pendingCourses.get(i).getId(), List.of()));
+                }
+                accepted += pendingRows.size();
+            } catch (DataAccessException e) {
+                // Le lot entier est annulé ; les lots précédents restent enregistrés
+                log.warn("Échec de l'import d'un lot de {} cours pour le formateur {}", pendingCourses.size(), teacher.getId(), e);
+                for (int index : pendingRows) {
+                    results.set(index, new RowResult(index + 1, RowStatus.FAILED, null,
+                            List.of("Erreur lors de l'enregistrement du lot : " + e.getMostSpecificCause().getMessage())));
+                }
+                rejected += pendingRows.size();
+            }
+            pendingRows.clear();
+            pendingCourses.clear();
+        }
+
+        CourseImportReport finish() {
+            flush();
+            if (!dryRun) {
+                log.info("Import de cours pour le formateur {} : {} créés, {} rejetés", teacher.getId(), accepted, rejected);
+            }
+            return new CourseImportReport(dryRun, results.size(), accepted, rejected, truncated, List.copyOf(results));
+        }
+    }
+
+    /**
+     * Lecteur CSV minimal (RFC 4180) : champs entre guillemets, guillemets doublés, retours à la ligne dans un champ.
+     */
+    private static final class CsvReader implements AutoCloseable {
+
+        private static final int NONE = -2;
+
+        private final Reader in;
+        private final char delimiter;
+        private int peeked = NONE;
+
+        private CsvReader(Reader in, char delimiter) {
+            this.in = in;
+            this.delimiter = delimiter;
+        }
+
+        static CsvReader open(InputStream body) throws IOException {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+            reader.mark(8192);
+            String header = reader.readLine();
+            reader.reset();
+            boolean semicolon = header != null
+                    && header.chars().filter(c -> c == ';').count() > header.chars().filter(c -> c == ',').count();
+            return new CsvReader(reader, semicolon ? ';' : ',');
+        }
+
+        List<String> next() throws IOException {
+            int c = read();
+            if (c == -1) {
+                return null;
+            }
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            for (; ; c = read()) {
+                if (quoted) {
+                    if (c == -1) {
+                        throw new InvalidImportFileException("Fichier CSV invalide : guillemet non fermé.");
+                    }
+                    if (c == '"') {
+                        int next = read();
+                        if (next == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            peeked = next;
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"' && field.isEmpty()) {
+                    quoted = true;
+                } else if (c == delimiter) {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n' || c == -1) {
+                    fields.add(field.toString());
+                    return fields;
+                } else if (c == '\r') {
+                    int next = read();
+                    if (next != '\n') {
+                        peeked = next;
+                    }
+                    fields.add(field.toString());
+                    return fields;
+                } else {
+                    field.append((char) c);
+                }
+            }
+        }
+
+        private int read() throws IOException {
+            if (peeked != NONE) {
+                int c = peeked;
+                peeked = NONE;
+                return c;
+            }
+            return in.read();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.homework.backend.services;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.homework.backend.config.props.CourseCacheProperties;
+import com.homework.backend.models.Category;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Cache court des pages de résultats de GET /courses : seuls les ids et le total sont conservés,
+ * les cartes sont rechargées à chaque appel (le nombre d'inscrits reste donc à jour).
+ * La clé contient la version du catalogue : toute création, modification ou suppression de cours
+ * appelle {@link #bumpCatalogVersion()} et rend les pages déjà en cache inaccessibles.
+ */
+@Service
+public class CourseSearchCache {
+
+    private final Cache<SearchKey, IdPage> pages;
+    private final AtomicLong catalogVersion = new AtomicLong();
+
+    public CourseSearchCache(CourseCacheProperties properties, MeterRegistry meterRegistry) {
+        this.pages = Caffeine.newBuilder()
+                .maximumSize(properties.getSearchMaxSize())
+                .expireAfterWrite(properties.getSearchTtl())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, pages, "courses.search");
+        Gauge.builder("courses.catalog.version", catalogVersion, AtomicLong::get)
+                .description("Version du catalogue utilisée dans les clés du cache de recherche")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Page d'ids pour ces critères (déjà normalisés par l'appelant), calculée par {@code loader} en cas d'absence.
+     * Les appels concurrents sur la même clé n'exécutent qu'une seule fois la recherche.
+     */
+    public Page<Long> get(String keyword, Category category, String city, Pageable pageable, Supplier<Page<Long>> loader) {
+        if (pageable.isUnpaged()) {
+            return loader.get();
+        }
+        SearchKey key = new SearchKey(catalogVersion.get(), keyword, category, city,
+                pageable.getPageNumber(), pageable.getPageSize(), pageable.getSort().toString());
+        IdPage page = pages.get(key, k -> IdPage.of(loader.get()));
+        return new PageImpl<>(page.ids(), pageable, page.total());
+    }
+
+    public void bumpCatalogVersion() {
+        // Après le commit : une recherche lancée avant ne peut pas stocker des résultats périmés sous la nouvelle version
+        AfterCommit.run(catalogVersion::incrementAndGet);
+    }
+
+    private record SearchKey(long catalogVersion, String keyword, Category category, String city,
+                             int page, int size, String sort) {
+    }
+
+    private record IdPage(List<Long> ids, long total) {
+        static IdPage of(Page<Long> page) {
+            return new IdPage(List.copyOf(page.getContent()), page.getTotalElements());
+        }
+    }
+}
@@ -1,11 +1,18 @@
 package com.homework.backend.services;
 
+import com.homework.backend.dto.CourseCardResponse;
+import com.homework.backend.dto.CourseCursor;
+import com.homework.backend.dto.CourseDetailResponse;
 import com.homework.backend.dto.CourseRequest;
+import com.homework.backend.dto.CourseSuggestion;
+import com.homework.backend.dto.CourseSuggestionSource;
+import com.homework.backend.dto.CursorPage;
 import com.homework.backend.models.Category;
 import com.homework.backend.models.Course;
 import com.homework.backend.models.Role;
 import com.homework.backend.models.User;
 import com.homework.backend.repositories.CourseRepository;
+import com.homework.backend.repositories.UserRepository;
 import com.homework.backend.specifications.CourseSpecification;
 import jakarta.persistence.EntityNotFoundException;
 import org.springframework.data.jpa.domain.Specification;
@@ -13,17 +20,29 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Locale;
 
 @Service
 public class CourseService {
 
     private final CourseRepository courseRepository;
+    private final UserRepository userRepository;
+    private final CourseDetailCache courseDetailCache;
+    private final CourseSearchCache courseSearchCache;
+    private final CourseSuggestionIndex courseSuggestionIndex;
 
-    public CourseService(CourseRepository courseRepository) {
+    public CourseService(CourseRepository courseRepository, UserRepository userRepository, CourseDetailCache courseDetailCache,
+                         CourseSearchCache courseSearchCache, CourseSuggestionIndex courseSuggestionIndex) {
         this.courseRepository = courseRepository;
+        this.userRepository = userRepository;
+        this.courseDetailCache = courseDetailCache;
+        this.courseSearchCache = courseSearchCache;
+        this.courseSuggestionIndex = courseSuggestionIndex;
     }
 
     @Transactional
@@ -32,36 +51,101 @@ public class CourseService {
             throw new SecurityException("Seul un formateur peut créer un cours.");
         }
 
-        Course course = Course.builder()
+        Course savedCourse = courseRepository.save(newCourse(courseRequest, loadTeacher(userRepository, currentUser)));
+        courseSearchCache.bumpCatalogVersion();
+        courseSuggestionIndex.index(CourseSuggestionSource.from(savedCourse));
+        return savedCourse;
+    }
+
+    // Partagé avec l'import en masse (CourseImportService)
+    static Course newCourse(CourseRequest courseRequest, User teacher) {
+        return Course.builder()
                 .title(courseRequest.title())
                 .description(courseRequest.description())
                 .category(courseRequest.category())
                 .price(courseRequest.price())
                 .courseDateTime(courseRequest.courseDateTime())
                 .city(courseRequest.city())
-                .teacher(currentUser)
+                .teacher(teacher)
                 .duration(courseRequest.duration())
                 .maxStudents(courseRequest.maxStudents())
                 .build();
+    }
+
+    /**
+     * Formateur complet : en mode jwt.auth-mode=CLAIMS, le principal ne porte que les champs du token
+     * (ni nom de famille ni bio), alors que l'index d'auto-complétion et la fiche renvoyée les affichent.
+     */
+    static User loadTeacher(UserRepository userRepository, User principal) {
+        return userRepository.findById(principal.getId())
+                .orElseThrow(() -> new EntityNotFoundException("Formateur non trouvé avec l'ID : " + principal.getId()));
+    }
 
-        return courseRepository.save(course);
+    public List<CourseSuggestion> suggest(String prefix, Integer limit) {
+        return courseSuggestionIndex.suggest(prefix, limit);
     }
 
+    /**
+     * Les ids de la page viennent du cache de recherche ; les cartes sont toujours rechargées en une requête.
+     */
     @Transactional(readOnly = true)
-    public Page<Course> searchCourses(String keyword, Category category, String city, Pageable pageable) {
-        Specification<Course> spec = Specification.allOf();
+    public Page<CourseCardResponse> searchCourses(String keyword, Category category, String city, Pageable pageable) {
+        // La recherche ignore la casse : des critères équivalents partagent la même entrée de cache
+        String normalizedKeyword = normalize(keyword);
+        String normalizedCity = normalize(city);
+
+        Page<Long> ids = courseSearchCache.get(normalizedKeyword, category, normalizedCity, pageable,
+                () -> searchCourseIds(normalizedKeyword, category, normalizedCity, pageable));
+        return new PageImpl<>(courseRepository.findCardsByIds(ids.getContent()), pageable, ids.getTotalElements());
+    }
 
-        if (keyword != null && !keyword.isEmpty()) {
-            spec = spec.and(CourseSpecification.matchesKeyword(keyword));
+    private Page<Long> searchCourseIds(String keyword, Category category, String city, Pageable pageable) {
+        // Avec un mot-clé : index plein texte / trigrammes, résultats triés par pertinence
+        if (keyword != null) {
+            return courseRepository.searchIdsByKeyword(keyword, category, city, pageable);
         }
+
+        Specification<Course> spec = Specification.allOf();
         if (category != null) {
             spec = spec.and(CourseSpecification.hasCategory(category));
         }
-        if (city != null && !city.isEmpty()) {
+        if (city != null) {
             spec = spec.and(CourseSpecification.cityContains(city));
         }
 
-        return courseRepository.findAll(spec, pageable);
+        return courseRepository.findIds(spec, pageable);
+    }
+
+    private static String normalize(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        return value.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Mode curseur de /courses et /courses/all : page suivante après {@code cursor} (null pour la première),
+     * ordre stable (clé de tri, id), sans requête COUNT.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<CourseCardResponse> scrollCourses(String keyword, String titleContains, Category category, String city,
+                                            String orderBy, String cursor, int size) {
+        CourseCursor.Order order = CourseCursor.Order.fromParam(orderBy);
+        CourseCursor after = cursor == null || cursor.isBlank() ? null : CourseCursor.decode(cursor, order);
+        String normalizedKeyword = keyword == null || keyword.isBlank() ? null : keyword.trim();
+
+        // Un élément de plus que demandé : indique s'il existe une page suivante
+        List<CourseCardResponse> courses = courseRepository.scrollCourses(normalizedKeyword, titleContains, category, city, order, after, size + 1);
+        boolean hasNext = courses.size() > size;
+        List<CourseCardResponse> content = hasNext ? courses.subList(0, size) : courses;
+
+        String nextCursor = null;
+        if (hasNext) {
+            CourseCardResponse last = content.get(content.size() - 1);
+            LocalDateTime sortKey = order == CourseCursor.Order.CREATED_AT ? last.createdAt() : last.courseDateTime();
+            nextCursor = new CourseCursor(order, sortKey, last.id()).encode();
+        }
+        return new CursorPage<>(content, nextCursor, hasNext, content.size());
     }
 
     @Transactional(readOnly = true)
@@ -71,8 +155,17 @@ public class CourseService {
     }
 
     @Transactional(readOnly = true)
-    public List<Course> getCoursesByTeacher(User teacher) {
-        return courseRepository.findByTeacher(teacher);
+    public CourseDetailResponse getCourseDetail(Long id) {
+        CourseDetailResponse course = courseDetailCache.get(id);
+        if (course == null) {
+            throw new EntityNotFoundException("Cours non trouvé avec l'ID : " + id);
+        }
+        return course;
+    }
+
+    @Transactional(readOnly = true)
+    public List<CourseCardResponse> getCoursesByTeacher(User teacher) {
+        return courseRepository.findCardsByTeacherId(teacher.getId());
     }
 
     @Transactional
@@ -93,7 +186,11 @@ public class CourseService {
         courseToUpdate.setDuration(courseRequest.duration());
         courseToUpdate.setMaxStudents(courseRequest.maxStudents());
 
-        return courseRepository.save(courseToUpdate);
+        Course savedCourse = courseRepository.save(courseToUpdate);
+        courseDetailCache.evict(id);
+        courseSearchCache.bumpCatalogVersion();
+        courseSuggestionIndex.index(CourseSuggestionSource.from(savedCourse));
+        return savedCourse;
     }
 
     @Transactional
@@ -106,10 +203,13 @@ public class CourseService {
         }
 
         courseRepository.delete(courseToDelete);
+        courseDetailCache.evict(id);
+        courseSearchCache.bumpCatalogVersion();
+        courseSuggestionIndex.remove(id);
     }
 
     @Transactional(readOnly = true)
-    public Page<Course> findWithFilters(String query, Category category, Pageable pageable) {
+    public Page<CourseCardResponse> findWithFilters(String query, Category category, Pageable pageable) {
         // On commence avec une spécification qui ne filtre rien
         Specification<Course> spec = Specification.where(null);
 
@@ -128,6 +228,6 @@ public class CourseService {
         }
 
         // On exécute la recherche avec les spécifications construites
-        return courseRepository.findAll(spec, pageable);
+        return courseRepository.findCards(spec, pageable);
     }
 }
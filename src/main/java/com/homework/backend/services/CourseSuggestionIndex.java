@@ -0,0 +1,399 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.CourseSuggestProperties;
+import com.homework.backend.dto.CourseSuggestion;
+import com.homework.backend.dto.CourseSuggestionSource;
+import com.homework.backend.repositories.CourseRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Index en mémoire pour l'auto-complétion (GET /courses/suggest) : titres, villes et noms de formateurs.
+ * Chaque terme est indexé sous sa forme normalisée (minuscules, sans accents) et sous chacun de ses
+ * suffixes commençant par un mot, dans un arbre de préfixes dont chaque nœud garde ses meilleurs termes
+ * (nombre de cours décroissant) : une recherche parcourt le préfixe puis lit une liste déjà classée,
+ * sans accès à la base et en temps indépendant du nombre de termes qui commencent par ce préfixe.
+ * Construit au démarrage, mis à jour après commit par {@link CourseService}, reconstruit périodiquement.
+ */
+@Service
+public class CourseSuggestionIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(CourseSuggestionIndex.class);
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+    // Ordre des suggestions : les termes qui couvrent le plus de cours d'abord, puis les plus courts
+    private static final Comparator<Term> RANKING = Comparator.comparingInt(Term::courseCount).reversed()
+            .thenComparingInt((Term term) -> term.label.length())
+            .thenComparing(term -> term.label);
+
+    private final CourseRepository courseRepository;
+    private final CourseSuggestProperties properties;
+    private final Timer lookupTimer;
+    // Les lectures ne prennent pas de verrou ; les écritures sont rares et sérialisées
+    private final Object writeLock = new Object();
+    private final Object rebuildLock = new Object();
+    private volatile Terms terms;
+    // Écritures reçues pendant une reconstruction, rejouées sur le nouvel index avant qu'il ne remplace l'ancien
+    private List<Consumer<Terms>> writesDuringRebuild;
+
+    public CourseSuggestionIndex(CourseRepository courseRepository, CourseSuggestProperties properties, MeterRegistry meterRegistry) {
+        this.courseRepository = courseRepository;
+        this.properties = properties;
+        this.terms = new Terms(properties.getMaxResults());
+        this.lookupTimer = Timer.builder("courses.suggest.lookup")
+                .description("Durée d'une recherche par préfixe dans l'index d'auto-complétion")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        Gauge.builder("courses.suggest.terms", this, index -> index.terms.byId.size())
+                .description("Nombre de termes distincts dans l'index d'auto-complétion")
+                .register(meterRegistry);
+    }
+
+    public List<CourseSuggestion> suggest(String prefix, Integer limit) {
+        String normalizedPrefix = normalize(prefix);
+        if (normalizedPrefix.length() < properties.getMinPrefixLength()) {
+            return List.of();
+        }
+        int maxResults = limit == null ? properties.getMaxResults() : Math.clamp(limit, 1, properties.getMaxResults());
+        return lookupTimer.record(() -> lookup(terms, normalizedPrefix, maxResults));
+    }
+
+    private List<CourseSuggestion> lookup(Terms current, String prefix, int maxResults) {
+        return current.top(prefix).stream()
+                .map(term -> new CourseSuggestion(term.label, term.kind, term.courseCount()))
+                .filter(suggestion -> suggestion.courseCount() > 0)
+                .limit(maxResults)
+                .toList();
+    }
+
+    /**
+     * Indexe (ou ré-indexe) un cours après le commit de la transaction courante.
+     */
+    public void index(CourseSuggestionSource source) {
+        AfterCommit.run(() -> write(current -> current.put(source)));
+    }
+
+    public void remove(Long courseId) {
+        AfterCommit.run(() -> write(current -> current.remove(courseId)));
+    }
+
+    // Le nom du formateur est indexé avec chacun de ses cours
+    public void reindexTeacher(Long teacherId) {
+        AfterCommit.run(() -> {
+            List<CourseSuggestionSource> sources = courseRepository.findSuggestionSourcesByTeacherId(teacherId);
+            write(current -> sources.forEach(current::put));
+        });
+    }
+
+    private void write(Consumer<Terms> update) {
+        synchronized (writeLock) {
+            update.accept(terms);
+            if (writesDuringRebuild != null) {
+                writesDuringRebuild.add(update);
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${courses.suggest.rebuild-interval:30m}",
+            initialDelayString = "${courses.suggest.rebuild-interval:30m}")
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            long start = System.nanoTime();
+            synchronized (writeLock) {
+                writesDuringRebuild = new ArrayList<>();
+            }
+            Terms rebuilt = new Terms(properties.getMaxResults());
+            try {
+                rebuilt.load(courseRepository.findSuggestionSources());
+            } catch (RuntimeException e) {
+                synchronized (writeLock) {
+                    writesDuringRebuild = null;
+                }
+                throw e;
+            }
+            int replayed;
+            synchronized (writeLock) {
+                // Commits survenus entre la lecture et l'échange : rejoués dans l'ordre, ils ne sont pas perdus
+                writesDuringRebuild.forEach(write -> write.accept(rebuilt));
+                replayed = writesDuringRebuild.size();
+                writesDuringRebuild = null;
+                terms = rebuilt;
+            }
+            log.info("Index d'auto-complétion construit : {} termes ({} écriture(s) rejouée(s)) en {} ms",
+                    rebuilt.byId.size(), replayed, (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+
+    static String normalize(String value) {
+        if (value == null) {
+            return "";
+        }
+        String withoutDiacritics = DIACRITICS.matcher(Normalizer.normalize(value, Normalizer.Form.NFD)).replaceAll("");
+        return SEPARATORS.matcher(withoutDiacritics.toLowerCase(Locale.ROOT)).replaceAll(" ").trim();
+    }
+
+    private record TermId(CourseSuggestion.Kind kind, String normalizedLabel) {
+    }
+
+    private static final class Term {
+        private final CourseSuggestion.Kind kind;
+        private final String label;
+        private final List<String> keys = new ArrayList<>();
+        private final Set<Long> courseIds = ConcurrentHashMap.newKeySet();
+
+        private Term(CourseSuggestion.Kind kind, String label) {
+            this.kind = kind;
+            this.label = label;
+        }
+
+        int courseCount() {
+            return courseIds.size();
+        }
+    }
+
+    /**
+     * Nœud de l'arbre de préfixes. {@code children} et {@code top} sont remplacés (jamais modifiés en place)
+     * et lus sans verrou ; {@code ending} n'est utilisé que sous {@code writeLock}.
+     */
+    private static final class Node {
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        private final char label;
+        // Triés par label : recherche dichotomique
+        private volatile Node[] children = NO_CHILDREN;
+        // Termes dont une clé se termine sur ce nœud
+        private final List<Term> ending = new ArrayList<>(1);
+        // Meilleurs termes du sous-arbre selon RANKING, au plus topSize
+        private volatile List<Term> top = List.of();
+
+        private Node(char label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            Node[] current = children;
+            int index = indexOf(current, c);
+            return index >= 0 ? current[index] : null;
+        }
+
+        Node getOrAddChild(char c) {
+            Node[] current = children;
+            int index = indexOf(current, c);
+            if (index >= 0) {
+                return current[index];
+            }
+            int insertAt = -index - 1;
+            Node child = new Node(c);
+            Node[] updated = new Node[current.length + 1];
+            System.arraycopy(current, 0, updated, 0, insertAt);
+            updated[insertAt] = child;
+            System.arraycopy(current, insertAt, updated, insertAt + 1, current.length - insertAt);
+            children = updated;
+            return child;
+        }
+
+        void removeChild(Node child) {
+            Node[] current = children;
+            int index = indexOf(current, child.label);
+            if (index < 0) {
+                return;
+            }
+            Node[] updated = new Node[current.length - 1];
+            System.arraycopy(current, 0, updated, 0, index);
+            System.arraycopy(current, index + 1, updated, index, current.length - index - 1);
+            children = updated;
+        }
+
+        boolean isEmpty() {
+            return ending.isEmpty() && children.length == 0;
+        }
+
+        private static int indexOf(Node[] nodes, char c) {
+            int low = 0;
+            int high = nodes.length - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char label = nodes[mid].label;
+                if (label < c) {
+                    low = mid + 1;
+                } else if (label > c) {
+                    high = mid - 1;
+                } else {
+                    return mid;
+                }
+            }
+            return -(low + 1);
+        }
+    }
+
+    /**
+     * Contenu de l'index. L'arbre est lu sans verrou ; {@code byId} et {@code byCourse}
+     * ne sont utilisés que sous {@code writeLock}.
+     * Le classement d'un nœud se déduit de ses propres termes et du classement de ses enfants : quand le
+     * nombre de cours d'un terme change, seuls les nœuds des chemins de ses clés sont reclassés.
+     */
+    private static final class Terms {
+        private final int topSize;
+        private final Node root = new Node('\0');
+        private final Map<TermId, Term> byId = new ConcurrentHashMap<>();
+        private final Map<Long, List<Term>> byCourse = new HashMap<>();
+        // Chargement initial : les classements sont calculés une seule fois, à la fin
+        private boolean loading;
+
+        Terms(int topSize) {
+            this.topSize = topSize;
+        }
+
+        List<Term> top(String prefix) {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.child(prefix.charAt(i));
+            }
+            return node == null ? List.of() : node.top;
+        }
+
+        void load(List<CourseSuggestionSource> sources) {
+            loading = true;
+            sources.forEach(this::put);
+            loading = false;
+            rankSubtree(root);
+        }
+
+        void put(CourseSuggestionSource source) {
+            remove(source.id());
+            List<Term> courseTerms = new ArrayList<>(3);
+            addTerm(courseTerms, source.id(), CourseSuggestion.Kind.TITLE, source.title());
+            addTerm(courseTerms, source.id(), CourseSuggestion.Kind.CITY, source.city());
+            addTerm(courseTerms, source.id(), CourseSuggestion.Kind.TEACHER,
+                    joinName(source.teacherFirstName(), source.teacherLastName()));
+            byCourse.put(source.id(), courseTerms);
+        }
+
+        void remove(Long courseId) {
+            List<Term> courseTerms = byCourse.remove(courseId);
+            if (courseTerms == null) {
+                return;
+            }
+            for (Term term : courseTerms) {
+                term.courseIds.remove(courseId);
+                if (term.courseIds.isEmpty()) {
+                    byId.remove(new TermId(term.kind, normalize(term.label)));
+                }
+                rerank(term);
+            }
+        }
+
+        private void addTerm(List<Term> courseTerms, Long courseId, CourseSuggestion.Kind kind, String label) {
+            String normalized = normalize(label);
+            if (normalized.isEmpty()) {
+                return;
+            }
+            Term term = byId.computeIfAbsent(new TermId(kind, normalized), id -> register(id, label.trim()));
+            term.courseIds.add(courseId);
+            courseTerms.add(term);
+            rerank(term);
+        }
+
+        // Une clé par suffixe commençant par un mot : "cours de piano" est trouvé par "pia"
+        private Term register(TermId id, String label) {
+            Term term = new Term(id.kind(), label);
+            String normalized = id.normalizedLabel();
+            int start = 0;
+            while (true) {
+                String key = normalized.substring(start);
+                if (!term.keys.contains(key)) {
+                    term.keys.add(key);
+                    Node node = root;
+                    for (int i = 0; i < key.length(); i++) {
+                        node = node.getOrAddChild(key.charAt(i));
+                    }
+                    node.ending.add(term);
+                }
+                int space = normalized.indexOf(' ', start);
+                if (space < 0) {
+                    return term;
+                }
+                start = space + 1;
+            }
+        }
+
+        /**
+         * Reclasse les nœuds des chemins du terme, de la fin de chaque clé vers la racine.
+         * Un terme qui ne couvre plus aucun cours est retiré de l'arbre, ainsi que les nœuds devenus vides.
+         */
+        private void rerank(Term term) {
+            if (loading) {
+                return;
+            }
+            boolean unused = term.courseIds.isEmpty();
+            for (String key : term.keys) {
+                Node[] path = new Node[key.length() + 1];
+                path[0] = root;
+                for (int i = 0; i < key.length(); i++) {
+                    path[i + 1] = path[i].child(key.charAt(i));
+                }
+                if (unused) {
+                    path[key.length()].ending.remove(term);
+                }
+                for (int depth = key.length(); depth >= 0; depth--) {
+                    Node node = path[depth];
+                    if (depth > 0 && node.isEmpty()) {
+                        path[depth - 1].removeChild(node);
+                    } else {
+                        rank(node);
+                    }
+                }
+            }
+        }
+
+        private void rankSubtree(Node node) {
+            for (Node child : node.children) {
+                rankSubtree(child);
+            }
+            rank(node);
+        }
+
+        // Les meilleurs termes d'un sous-arbre figurent forcément parmi ceux de ses enfants
+        private void rank(Node node) {
+            Set<Term> candidates = Collections.newSetFromMap(new IdentityHashMap<>());
+            candidates.addAll(node.ending);
+            for (Node child : node.children) {
+                candidates.addAll(child.top);
+            }
+            node.top = candidates.stream()
+                    .filter(term -> term.courseCount() > 0)
+                    .sorted(RANKING)
+                    .limit(topSize)
+                    .toList();
+        }
+
+        private static String joinName(String firstName, String lastName) {
+            if (firstName == null) {
+                return lastName;
+            }
+            return lastName == null ? firstName : firstName + " " + lastName;
+        }
+    }
+}
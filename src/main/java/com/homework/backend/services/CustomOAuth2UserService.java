@@ -21,9 +21,11 @@ import java.util.Map;
 public class CustomOAuth2UserService extends DefaultOAuth2UserService {
 
     private final UserRepository userRepository;
+    private final CachedUserDetailsService userDetailsService;
 
-    public CustomOAuth2UserService(UserRepository userRepository) {
+    public CustomOAuth2UserService(UserRepository userRepository, CachedUserDetailsService userDetailsService) {
         this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
     }
 
     @Override
@@ -42,7 +44,9 @@ public class CustomOAuth2UserService extends DefaultOAuth2UserService {
             newUser.setPassword(null);
             newUser.setVerifiedEmail(true); // OAuth2 emails are pre-verified
 
-            return userRepository.saveAndFlush(newUser);
+            User savedUser = userRepository.saveAndFlush(newUser);
+            userDetailsService.evict(email);
+            return savedUser;
         });
 
         return new DefaultOAuth2User(
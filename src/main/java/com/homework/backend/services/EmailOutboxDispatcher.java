@@ -0,0 +1,317 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.EmailOutboxProperties;
+import com.homework.backend.config.props.MailExecutorProperties.OverflowPolicy;
+import com.homework.backend.models.EmailOutboxMessage;
+import com.homework.backend.repositories.EmailOutboxRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Envoie les emails de la table email_outbox.
+ * Chaque lot est réclamé (SKIP LOCKED) dans une transaction courte, envoyé hors transaction
+ * sur une seule connexion SMTP par le {@link MailExecutor}, puis son résultat est enregistré, si le lot est encore
+ * réclamé par ce passage (jeton de réclamation) : envoyé, nouvel essai
+ * avec backoff exponentiel, ou abandon après mail.outbox.max-attempts tentatives.
+ */
+@Service
+public class EmailOutboxDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailOutboxDispatcher.class);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final MailExecutor mailExecutor;
+    private final EmailOutboxProperties properties;
+    private final TransactionTemplate transactionTemplate;
+
+    private final AtomicLong pending = new AtomicLong();
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter abandoned;
+    private final Timer batchDuration;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    public EmailOutboxDispatcher(EmailOutboxRepository outboxRepository,
+                                 JavaMailSender mailSender,
+                                 MailExecutor mailExecutor,
+                                 EmailOutboxProperties properties,
+                                 PlatformTransactionManager transactionManager,
+                                 MeterRegistry meterRegistry) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.mailExecutor = mailExecutor;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+
+        this.sent = outcomeCounter(meterRegistry, "sent");
+        this.retried = outcomeCounter(meterRegistry, "retry");
+        this.abandoned = outcomeCounter(meterRegistry, "abandoned");
+        this.batchDuration = Timer.builder("email.outbox.batch")
+                .description("Durée d'envoi d'un lot d'emails sur une connexion SMTP")
+                .register(meterRegistry);
+        Gauge.builder("email.outbox.pending", pending, AtomicLong::get)
+                .description("Emails en attente dans l'outbox (mesuré à chaque passage du dispatcher)")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval:5s}")
+    public void dispatch() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        for (int batch = 0; batch < properties.getMaxBatchesPerRun(); batch++) {
+            ClaimedBatch claimed = claimBatch();
+            if (claimed.messages().isEmpty()) {
+                break;
+            }
+            if (!mailExecutor.submit(() -> sendBatch(claimed))) {
+                handleOverflow(claimed);
+                break;
+            }
+
+            if (claimed.messages().size() < properties.getBatchSize()) {
+                break;
+            }
+        }
+
+        pending.set(outboxRepository.countPending());
+    }
+
+    @Scheduled(cron = "0 45 3 * * *")
+    public void purgeSent() {
+        LocalDateTime before = LocalDateTime.now().minus(properties.getRetention());
+        Integer deleted = transactionTemplate.execute(status -> outboxRepository.deleteSentBefore(before));
+        log.info("Outbox email : {} messages envoyés purgés", deleted);
+    }
+
+    private void sendBatch(ClaimedBatch batch) {
+        ClaimedBatch claimed = renewLease(batch);
+        if (claimed.messages().isEmpty()) {
+            return;
+        }
+        Timer.Sample sample = Timer.start();
+        Exception[] failures = send(claimed.messages());
+        sample.stop(batchDuration);
+        recordResults(claimed, failures);
+    }
+
+    /**
+     * File d'envoi pleine : selon mail.executor.overflow-policy, le lot retourne dans l'outbox
+     * pour le prochain passage, ou il est abandonné.
+     */
+    private void handleOverflow(ClaimedBatch claimed) {
+        List<Long> ids = claimed.ids();
+        if (mailExecutor.getOverflowPolicy() == OverflowPolicy.DROP) {
+            transactionTemplate.executeWithoutResult(status ->
+                    ids.forEach(id -> outboxRepository.markFailed(id, claimed.token(), "Abandonné : file d'envoi saturée")));
+            abandoned.increment(ids.size());
+            log.warn("File d'envoi saturée : {} email(s) abandonné(s)", ids.size());
+        } else {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.release(ids, claimed.token()));
+            log.debug("File d'envoi saturée : {} email(s) laissés dans l'outbox", ids.size());
+        }
+    }
+
+    private ClaimedBatch claimBatch() {
+        UUID token = UUID.randomUUID();
+        List<EmailOutboxMessage> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<EmailOutboxMessage> messages = outboxRepository.lockNextBatch(now, properties.getBatchSize());
+            if (!messages.isEmpty()) {
+                outboxRepository.markSending(messages.stream().map(EmailOutboxMessage::getId).toList(),
+                        token, now.plus(properties.getLease()));
+            }
+            return messages;
+        });
+        return new ClaimedBatch(token, claimed != null ? claimed : List.of());
+    }
+
+    /**
+     * Relance le bail au moment où l'envoi commence (connexion SMTP obtenue). Un lot resté dans la file
+     * plus longtemps que le bail a pu être repris par un autre passage : ces messages sont retirés du lot
+     * plutôt qu'envoyés deux fois.
+     */
+    private ClaimedBatch renewLease(ClaimedBatch claimed) {
+        List<Long> ids = claimed.ids();
+        Set<Long> stillClaimed = transactionTemplate.execute(status -> {
+            if (outboxRepository.renewLease(ids, claimed.token(), LocalDateTime.now().plus(properties.getLease())) == ids.size()) {
+                return Set.copyOf(ids);
+            }
+            return Set.copyOf(outboxRepository.findIdsClaimedBy(ids, claimed.token()));
+        });
+        if (stillClaimed == null || stillClaimed.size() == ids.size()) {
+            return claimed;
+        }
+        logReclaimed(ids.size() - stillClaimed.size());
+        return new ClaimedBatch(claimed.token(), claimed.messages().stream()
+                .filter(message -> stillClaimed.contains(message.getId()))
+                .toList());
+    }
+
+    /**
+     * Envoie le lot sur une seule connexion SMTP.
+     *
+     * @return pour chaque message (même index que claimed), l'erreur rencontrée ou null s'il est parti
+     */
+    private Exception[] send(List<EmailOutboxMessage> claimed) {
+        Exception[] failures = new Exception[claimed.size()];
+        List<MimeMessage> toSend = new ArrayList<>(claimed.size());
+        Map<MimeMessage, Integer> indexes = new IdentityHashMap<>();
+        for (int i = 0; i < claimed.size(); i++) {
+            try {
+                MimeMessage mimeMessage = toMimeMessage(claimed.get(i));
+                toSend.add(mimeMessage);
+                indexes.put(mimeMessage, i);
+            } catch (MessagingException e) {
+                failures[i] = e;
+            }
+        }
+        if (toSend.isEmpty()) {
+            return failures;
+        }
+
+        try {
+            mailSender.send(toSend.toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            if (e.getFailedMessages().isEmpty()) {
+                indexes.values().forEach(i -> failures[i] = e);
+            }
+            e.getFailedMessages().forEach((message, cause) -> {
+                Integer i = indexes.get(message);
+                if (i != null) {
+                    failures[i] = cause;
+                }
+            });
+        } catch (MailException e) {
+            // Authentification ou configuration : aucun message n'est parti
+            indexes.values().forEach(i -> failures[i] = e);
+        }
+        return failures;
+    }
+
+    private void recordResults(ClaimedBatch claimed, Exception[] failures) {
+        LocalDateTime now = LocalDateTime.now();
+        UUID token = claimed.token();
+        List<Long> sentIds = new ArrayList<>(claimed.messages().size());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            for (int i = 0; i < claimed.messages().size(); i++) {
+                EmailOutboxMessage message = claimed.messages().get(i);
+                Exception failure = failures[i];
+                if (failure == null) {
+                    sentIds.add(message.getId());
+                    continue;
+                }
+
+                int attempts = message.getAttempts() + 1;
+                String error = truncate(failure.getMessage());
+                if (attempts >= properties.getMaxAttempts()) {
+                    if (outboxRepository.markFailed(message.getId(), token, error) == 0) {
+                        logReclaimed(1);
+                        continue;
+                    }
+                    abandoned.increment();
+                    log.error("Email '{}' à {} abandonné après {} tentatives : {}", message.getSubject(), message.getRecipient(), attempts, error);
+                } else {
+                    if (outboxRepository.scheduleRetry(message.getId(), token, now.plus(backoff(attempts)), error) == 0) {
+                        logReclaimed(1);
+                        continue;
+                    }
+                    retried.increment();
+                    log.warn("Échec d'envoi de l'email '{}' à {} (tentative {}) : {}", message.getSubject(), message.getRecipient(), attempts, error);
+                }
+            }
+            if (!sentIds.isEmpty()) {
+                int marked = outboxRepository.markSent(sentIds, token, now);
+                if (marked < sentIds.size()) {
+                    logReclaimed(sentIds.size() - marked);
+                }
+            }
+        });
+
+        sent.increment(sentIds.size());
+        if (!sentIds.isEmpty()) {
+            log.info("{} email(s) envoyé(s)", sentIds.size());
+        }
+    }
+
+    // Bail expiré avant ou pendant l'envoi : le message a été repris par un autre passage, qui s'en charge
+    private static void logReclaimed(int count) {
+        log.warn("{} email(s) repris par un autre passage après expiration du bail : ignoré(s) par ce lot", count);
+    }
+
+    private Duration backoff(int attempts) {
+        Duration delay = properties.getInitialBackoff().multipliedBy(1L << Math.min(attempts - 1, 20));
+        return delay.compareTo(properties.getMaxBackoff()) > 0 ? properties.getMaxBackoff() : delay;
+    }
+
+    private MimeMessage toMimeMessage(EmailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = mailSender.createMimeMessage();
+        boolean hasHtml = message.getHtmlBody() != null;
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, hasHtml, StandardCharsets.UTF_8.name());
+        helper.setFrom(fromEmail);
+        helper.setTo(message.getRecipient());
+        helper.setSubject(message.getSubject());
+        if (hasHtml) {
+            helper.setText(message.getBody(), message.getHtmlBody());
+        } else {
+            helper.setText(message.getBody());
+        }
+        return mimeMessage;
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    /**
+     * Lot réclamé par un passage du dispatcher. Le jeton, écrit sur chaque message au moment de la réclamation,
+     * conditionne toutes les mises à jour suivantes.
+     */
+    private record ClaimedBatch(UUID token, List<EmailOutboxMessage> messages) {
+
+        List<Long> ids() {
+            return messages.stream().map(EmailOutboxMessage::getId).toList();
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("email.outbox.messages")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
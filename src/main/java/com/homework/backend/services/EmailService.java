@@ -2,60 +2,51 @@ package com.homework.backend.services;
 
 import com.homework.backend.config.props.FrontendProperties;
 import com.homework.backend.models.Course;
+import com.homework.backend.models.EmailOutboxMessage;
 import com.homework.backend.models.User;
+import com.homework.backend.repositories.EmailOutboxRepository;
+import com.homework.backend.services.EmailTemplateRegistry.RenderedEmail;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.mail.MailException;
-import org.springframework.mail.SimpleMailMessage;
-import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.text.NumberFormat;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Optional;
 
+/**
+ * Construit les emails et les dépose dans l'outbox (table email_outbox), dans la transaction
+ * de l'appelant : l'email n'existe que si le changement métier est validé.
+ * Les textes viennent de classpath:templates/email/ (voir {@link EmailTemplateRegistry}).
+ */
 @Service
+@Transactional
 public class EmailService {
 
 	private static final Logger log = LoggerFactory.getLogger(EmailService.class);
 	private static final DateTimeFormatter COURSE_DATE_FORMAT = DateTimeFormatter.ofPattern("EEEE d MMMM yyyy 'à' HH'h'mm", Locale.FRENCH);
+	// NumberFormat n'est pas thread-safe et coûteux à créer : une instance par thread
+	private static final ThreadLocal<NumberFormat> AMOUNT_FORMAT = ThreadLocal.withInitial(() -> NumberFormat.getCurrencyInstance(Locale.FRANCE));
 
-	private final JavaMailSender mailSender;
+	private final EmailOutboxRepository outboxRepository;
 	private final FrontendProperties frontendProperties;
+	private final EmailTemplateRegistry templates;
 
-	@Value("${spring.mail.username}")
-	private String fromEmail;
-
-	public EmailService(JavaMailSender mailSender, FrontendProperties frontendProperties) {
-		this.mailSender = mailSender;
+	public EmailService(EmailOutboxRepository outboxRepository, FrontendProperties frontendProperties, EmailTemplateRegistry templates) {
+		this.outboxRepository = outboxRepository;
 		this.frontendProperties = frontendProperties;
+		this.templates = templates;
 	}
 
 	public void sendVerificationEmail(String to, String token, String firstName) {
-		log.info("Attempting to send verification email to: {}", to);
-		log.debug("SMTP configured - From: {}, Host: smtp.gmail.com, Port: 587", fromEmail);
-
-		String verificationUrl = frontendProperties.getUrl() + "/verify-email?token=" + token;
-		log.debug("Verification URL: {}", verificationUrl);
-
-		String body = String.format(
-				"Bonjour %s,%n%n" +
-						"Merci de vous être inscrit sur HomeWork !%n%n" +
-						"Pour activer votre compte, veuillez cliquer sur le lien suivant :%n" +
-						"%s%n%n" +
-						"Ce lien est valide pendant 24 heures.%n%n" +
-						"Si vous n'avez pas créé de compte sur HomeWork, vous pouvez ignorer cet email.%n%n" +
-						"Cordialement,%n" +
-						"L'équipe HomeWork",
-				Optional.ofNullable(firstName).orElse(""),
-				verificationUrl
-		);
-
-		sendEmail(to, "Vérifiez votre adresse email - HomeWork", body);
+		log.info("Queueing verification email to: {}", to);
+		sendEmail(to, buildVerificationEmail(token, firstName));
 	}
 
 	public void sendEnrollmentConfirmationEmail(User student, Course course) {
@@ -63,30 +54,7 @@ public class EmailService {
 			log.warn("Skipping enrollment confirmation email because student or course is null");
 			return;
 		}
-
-		String subject = "Confirmation d'inscription - " + course.getTitle();
-		String body = String.format(
-				"Bonjour %s,%n%n" +
-						"Votre inscription au cours \"%s\" a bien été confirmée.%n%n" +
-						"Détails du cours :%n" +
-						"- Date : %s%n" +
-						"- Ville : %s%n" +
-						"- Durée : %s%n" +
-						"- Formateur : %s %s%n" +
-						"- Montant réglé : %s%n%n" +
-						"Nous vous souhaitons un excellent cours !%n%n" +
-						"L'équipe HomeWork",
-				Optional.ofNullable(student.getFirstName()).orElse(""),
-				Optional.ofNullable(course.getTitle()).orElse(""),
-				formatCourseDate(course.getCourseDateTime()),
-				Optional.ofNullable(course.getCity()).orElse("à préciser"),
-				formatDuration(course.getDuration()),
-				Optional.ofNullable(course.getTeacher()).map(User::getFirstName).orElse(""),
-				Optional.ofNullable(course.getTeacher()).map(User::getLastName).orElse(""),
-				formatAmount(course.getPrice())
-		);
-
-		sendEmail(student.getEmail(), subject, body);
+		sendEmail(student.getEmail(), buildEnrollmentConfirmationEmail(student, course));
 	}
 
 	public void sendEnrollmentCancellationEmail(User student, Course course) {
@@ -94,54 +62,68 @@ public class EmailService {
 			log.warn("Skipping enrollment cancellation email because student or course is null");
 			return;
 		}
+		sendEmail(student.getEmail(), buildEnrollmentCancellationEmail(student, course));
+	}
+
+	public void sendWaitlistOfferEmail(User student, Course course, LocalDateTime offerExpiresAt) {
+		if (student == null || course == null) {
+			log.warn("Skipping waitlist offer email because student or course is null");
+			return;
+		}
+		sendEmail(student.getEmail(), buildWaitlistOfferEmail(student, course, offerExpiresAt));
+	}
+
+	RenderedEmail buildVerificationEmail(String token, String firstName) {
+		Map<String, String> values = new HashMap<>();
+		values.put("firstName", Optional.ofNullable(firstName).orElse(""));
+		values.put("verificationUrl", frontendProperties.getUrl() + "/verify-email?token=" + token);
+		return templates.render("verification", values);
+	}
+
+	RenderedEmail buildEnrollmentConfirmationEmail(User student, Course course) {
+		Map<String, String> values = courseValues(student, course);
+		values.put("duration", formatDuration(course.getDuration()));
+		return templates.render("enrollment-confirmation", values);
+	}
+
+	RenderedEmail buildEnrollmentCancellationEmail(User student, Course course) {
+		return templates.render("enrollment-cancellation", courseValues(student, course));
+	}
 
-		String subject = "Annulation et remboursement - " + course.getTitle();
-		String body = String.format(
-				"Bonjour %s,%n%n" +
-						"Votre inscription au cours \"%s\" a été annulée.%n" +
-						"Un remboursement de %s a été initié et apparaîtra sur votre moyen de paiement sous quelques jours ouvrés.%n%n" +
-						"Détails du cours annulé :%n" +
-						"- Date : %s%n" +
-						"- Ville : %s%n" +
-						"- Formateur : %s %s%n%n" +
-						"Si vous avez annulé par erreur, vous pouvez vous réinscrire dès maintenant depuis votre espace étudiant.%n%n" +
-						"À bientôt sur HomeWork,%n" +
-						"L'équipe HomeWork",
-				Optional.ofNullable(student.getFirstName()).orElse(""),
-				Optional.ofNullable(course.getTitle()).orElse(""),
-				formatAmount(course.getPrice()),
-				formatCourseDate(course.getCourseDateTime()),
-				Optional.ofNullable(course.getCity()).orElse("à préciser"),
-				Optional.ofNullable(course.getTeacher()).map(User::getFirstName).orElse(""),
-				Optional.ofNullable(course.getTeacher()).map(User::getLastName).orElse("")
-		);
-
-		sendEmail(student.getEmail(), subject, body);
+	RenderedEmail buildWaitlistOfferEmail(User student, Course course, LocalDateTime offerExpiresAt) {
+		Map<String, String> values = courseValues(student, course);
+		values.put("offerExpiresAt", formatCourseDate(offerExpiresAt));
+		values.put("courseUrl", frontendProperties.getUrl() + "/courses/" + course.getId());
+		return templates.render("waitlist-offer", values);
 	}
 
-	private void sendEmail(String to, String subject, String body) {
+	private Map<String, String> courseValues(User student, Course course) {
+		Map<String, String> values = new HashMap<>();
+		values.put("firstName", Optional.ofNullable(student.getFirstName()).orElse(""));
+		values.put("courseTitle", Optional.ofNullable(course.getTitle()).orElse(""));
+		values.put("courseDate", formatCourseDate(course.getCourseDateTime()));
+		values.put("city", Optional.ofNullable(course.getCity()).orElse("à préciser"));
+		values.put("teacherFirstName", Optional.ofNullable(course.getTeacher()).map(User::getFirstName).orElse(""));
+		values.put("teacherLastName", Optional.ofNullable(course.getTeacher()).map(User::getLastName).orElse(""));
+		values.put("amount", formatAmount(course.getPrice()));
+		return values;
+	}
+
+	private void sendEmail(String to, RenderedEmail email) {
 		if (to == null || to.isBlank()) {
-			log.warn("Attempted to send email with empty recipient. Subject: {}", subject);
+			log.warn("Attempted to send email with empty recipient. Subject: {}", email.subject());
 			return;
 		}
 
-		SimpleMailMessage message = new SimpleMailMessage();
-		message.setFrom(fromEmail);
-		message.setTo(to);
-		message.setSubject(subject);
-		message.setText(body);
-
-		try {
-			mailSender.send(message);
-			log.info("Email '{}' sent successfully to {}", subject, to);
-		} catch (MailException ex) {
-			log.error("❌ FAILED to send email '{}' to {}: {}", subject, to, ex.getMessage(), ex);
-			if (ex.getCause() != null) {
-				log.error("Root cause: {}", ex.getCause().getMessage());
-			}
-		} catch (Exception ex) {
-			log.error("❌ Unexpected error sending email '{}' to {}: {}", subject, to, ex.getMessage(), ex);
-		}
+		// Écrit dans la transaction de l'appelant ; l'envoi SMTP est fait par EmailOutboxDispatcher
+		outboxRepository.save(EmailOutboxMessage.builder()
+				.recipient(to)
+				.subject(email.subject())
+				.body(email.text())
+				.htmlBody(email.html())
+				.nextAttemptAt(LocalDateTime.now())
+				.build());
+		log.debug("Email '{}' to {} queued in outbox", email.subject(), to);
 	}
 
 	private String formatCourseDate(LocalDateTime courseDateTime) {
@@ -162,7 +144,6 @@ public class EmailService {
 		if (amount == null) {
 			return "—";
 		}
-		return NumberFormat.getCurrencyInstance(Locale.FRANCE).format(amount);
+		return AMOUNT_FORMAT.get().format(amount);
 	}
 }
-
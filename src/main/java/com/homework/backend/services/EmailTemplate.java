@@ -0,0 +1,87 @@
+package com.homework.backend.services;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Template d'email analysé une seule fois : une suite de fragments littéraux séparés
+ * par des emplacements {{nom}}. Le rendu se contente de concaténer, sans regex ni parsing.
+ */
+public final class EmailTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+    private static final int MAX_RETAINED_BUFFER = 16 * 1024;
+
+    private static final ThreadLocal<StringBuilder> BUFFER = ThreadLocal.withInitial(() -> new StringBuilder(1024));
+
+    private final String name;
+    // literals.length == placeholders.length + 1
+    private final String[] literals;
+    private final String[] placeholders;
+    private final boolean escapeHtml;
+
+    private EmailTemplate(String name, String[] literals, String[] placeholders, boolean escapeHtml) {
+        this.name = name;
+        this.literals = literals;
+        this.placeholders = placeholders;
+        this.escapeHtml = escapeHtml;
+    }
+
+    public static EmailTemplate parse(String name, String source, boolean escapeHtml) {
+        List<String> literals = new ArrayList<>();
+        List<String> placeholders = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            int open = source.indexOf(OPEN, position);
+            if (open < 0) {
+                literals.add(source.substring(position));
+                break;
+            }
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Template " + name + " : '{{' non fermé à la position " + open);
+            }
+            String placeholder = source.substring(open + OPEN.length(), close).trim();
+            if (placeholder.isEmpty()) {
+                throw new IllegalArgumentException("Template " + name + " : emplacement vide à la position " + open);
+            }
+            literals.add(source.substring(position, open));
+            placeholders.add(placeholder);
+            position = close + CLOSE.length();
+        }
+        return new EmailTemplate(name, literals.toArray(String[]::new), placeholders.toArray(String[]::new), escapeHtml);
+    }
+
+    /**
+     * Rend le template ; une valeur absente est remplacée par une chaîne vide.
+     */
+    public String render(Map<String, String> values) {
+        StringBuilder buffer = BUFFER.get();
+        buffer.setLength(0);
+        renderTo(buffer, values);
+        String rendered = buffer.toString();
+        if (buffer.capacity() > MAX_RETAINED_BUFFER) {
+            BUFFER.remove();
+        }
+        return rendered;
+    }
+
+    public void renderTo(StringBuilder out, Map<String, String> values) {
+        for (int i = 0; i < placeholders.length; i++) {
+            out.append(literals[i]);
+            String value = values.get(placeholders[i]);
+            if (value != null) {
+                out.append(escapeHtml ? HtmlUtils.htmlEscape(value) : value);
+            }
+        }
+        out.append(literals[placeholders.length]);
+    }
+
+    public String getName() {
+        return name;
+    }
+}
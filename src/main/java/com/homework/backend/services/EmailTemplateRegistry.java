@@ -0,0 +1,103 @@
+package com.homework.backend.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Charge et analyse au démarrage les templates de classpath:templates/email/.
+ * Chaque email a une variante texte obligatoire (nom.txt, dont la première ligne est
+ * "Subject: ...") et une variante HTML facultative (nom.html) : ajouter un fichier suffit.
+ */
+@Component
+public class EmailTemplateRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(EmailTemplateRegistry.class);
+    private static final String LOCATION = "classpath*:templates/email/*";
+    private static final String SUBJECT_HEADER = "Subject:";
+
+    private final Map<String, Templates> templates;
+
+    public EmailTemplateRegistry() {
+        Map<String, String> textSources = new HashMap<>();
+        Map<String, String> htmlSources = new HashMap<>();
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                String filename = resource.getFilename();
+                if (filename == null) {
+                    continue;
+                }
+                String source = resource.getContentAsString(StandardCharsets.UTF_8).replace("\r\n", "\n");
+                if (filename.endsWith(".txt")) {
+                    textSources.put(filename.substring(0, filename.length() - 4), source);
+                } else if (filename.endsWith(".html")) {
+                    htmlSources.put(filename.substring(0, filename.length() - 5), source);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Impossible de charger les templates d'email", e);
+        }
+
+        Map<String, Templates> parsed = new HashMap<>();
+        textSources.forEach((name, source) -> parsed.put(name, parse(name, source, htmlSources.get(name))));
+        htmlSources.keySet().stream()
+                .filter(name -> !textSources.containsKey(name))
+                .forEach(name -> log.warn("Template HTML {} ignoré : variante texte {}.txt manquante", name, name));
+        this.templates = Map.copyOf(parsed);
+        log.info("{} templates d'email chargés", templates.size());
+    }
+
+    public RenderedEmail render(String name, Map<String, String> values) {
+        Templates template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Template d'email inconnu : " + name);
+        }
+        return new RenderedEmail(
+                template.subject().render(values),
+                template.text().render(values),
+                template.html() != null ? template.html().render(values) : null
+        );
+    }
+
+    private static Templates parse(String name, String textSource, String htmlSource) {
+        if (!textSource.startsWith(SUBJECT_HEADER)) {
+            throw new IllegalArgumentException("Template " + name + ".txt : la première ligne doit être \"" + SUBJECT_HEADER + " ...\"");
+        }
+        int endOfHeader = textSource.indexOf('\n');
+        String subject = (endOfHeader < 0 ? textSource : textSource.substring(0, endOfHeader))
+                .substring(SUBJECT_HEADER.length()).trim();
+        String body = endOfHeader < 0 ? "" : stripSurroundingNewlines(textSource.substring(endOfHeader + 1));
+
+        return new Templates(
+                EmailTemplate.parse(name + ".subject", subject, false),
+                EmailTemplate.parse(name + ".txt", body, false),
+                htmlSource != null ? EmailTemplate.parse(name + ".html", htmlSource, true) : null
+        );
+    }
+
+    private static String stripSurroundingNewlines(String body) {
+        int start = 0;
+        int end = body.length();
+        while (start < end && body.charAt(start) == '\n') {
+            start++;
+        }
+        while (end > start && body.charAt(end - 1) == '\n') {
+            end--;
+        }
+        return body.substring(start, end);
+    }
+
+    private record Templates(EmailTemplate subject, EmailTemplate text, EmailTemplate html) {
+    }
+
+    public record RenderedEmail(String subject, String text, String html) {
+    }
+}
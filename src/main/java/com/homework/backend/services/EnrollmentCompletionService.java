@@ -0,0 +1,129 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.EnrollmentCompletionProperties;
+import com.homework.backend.repositories.CourseRepository;
+import com.homework.backend.repositories.EnrollmentRepository;
+import com.homework.backend.repositories.EnrollmentRepository.CompletedByCourse;
+import com.homework.backend.repositories.SeatHoldRepository;
+import com.homework.backend.repositories.SeatHoldRepository.ReleasedByCourse;
+import com.homework.backend.repositories.WaitlistEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Passe à COMPLETED les inscriptions ACTIVE des cours terminés (date du cours + durée), par lots
+ * ensemblistes : une requête par lot
+ * met à jour les inscriptions, puis les compteurs d'inscriptions actives des cours concernés
+ * sont décrémentés dans la même transaction, dans l'ordre des ids (pas d'interblocage entre instances).
+ * Aucun {@link SeatHoldService.SeatReleased} n'est publié : la place d'un cours terminé ne se propose plus.
+ * Les listes d'attente et les places proposées non payées des cours terminés sont supprimées dans la foulée.
+ */
+@Service
+public class EnrollmentCompletionService {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentCompletionService.class);
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final CourseRepository courseRepository;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final SeatHoldRepository seatHoldRepository;
+    private final CourseDetailCache courseDetailCache;
+    private final EnrollmentCompletionProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter completedRows;
+    private final Timer completionDuration;
+
+    public EnrollmentCompletionService(EnrollmentRepository enrollmentRepository,
+                                       CourseRepository courseRepository,
+                                       WaitlistEntryRepository waitlistEntryRepository,
+                                       SeatHoldRepository seatHoldRepository,
+                                       CourseDetailCache courseDetailCache,
+                                       EnrollmentCompletionProperties properties,
+                                       PlatformTransactionManager transactionManager,
+                                       MeterRegistry meterRegistry) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.courseRepository = courseRepository;
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.seatHoldRepository = seatHoldRepository;
+        this.courseDetailCache = courseDetailCache;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.completedRows = Counter.builder("maintenance.enrollments.completed")
+                .description("Inscriptions passées à COMPLETED après la fin du cours")
+                .register(meterRegistry);
+        this.completionDuration = Timer.builder("maintenance.enrollments.completion")
+                .description("Durée d'une exécution de la clôture des inscriptions terminées")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${maintenance.enrollment-completion.cron:0 */5 * * * *}")
+    public void completeFinishedEnrollments() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int batchSize = properties.getBatchSize();
+        Set<Long> courseIds = new HashSet<>();
+        int total = 0;
+        int batches = 0;
+
+        while (batches < properties.getMaxBatchesPerRun()) {
+            List<CompletedByCourse> completed = transactionTemplate.execute(status -> {
+                List<CompletedByCourse> byCourse = enrollmentRepository.completeFinishedChunk(now, batchSize);
+                byCourse.forEach(course ->
+                        courseRepository.decrementActiveEnrollmentCountBy(course.getCourseId(), (int) course.getCompleted()));
+                return byCourse;
+            });
+            batches++;
+            int count = 0;
+            if (completed != null) {
+                for (CompletedByCourse course : completed) {
+                    count += (int) course.getCompleted();
+                    courseIds.add(course.getCourseId());
+                }
+            }
+            total += count;
+            if (count < batchSize) {
+                break;
+            }
+        }
+
+        int waitlistEntries = clearEndedCourseQueues(now, courseIds);
+
+        courseIds.forEach(courseDetailCache::evict);
+        long elapsed = System.nanoTime() - start;
+        completionDuration.record(elapsed, TimeUnit.NANOSECONDS);
+        completedRows.increment(total);
+        log.info("Clôture des inscriptions terminées : {} inscription(s) passée(s) à COMPLETED sur {} cours, {} lot(s), "
+                        + "{} entrée(s) de liste d'attente supprimée(s), {} ms",
+                total, courseIds.size(), batches, waitlistEntries, elapsed / 1_000_000);
+    }
+
+    // Sans quoi le balayage de la liste d'attente verrait des places libres (compteur remis à zéro) et des élèves à promouvoir
+    private int clearEndedCourseQueues(LocalDateTime now, Set<Long> courseIds) {
+        Integer deleted = transactionTemplate.execute(status -> {
+            List<ReleasedByCourse> offers = seatHoldRepository.deleteOffersForEndedCourses(now);
+            offers.forEach(course -> {
+                courseRepository.releaseHeldSeats(course.getCourseId(), (int) course.getReleased());
+                courseIds.add(course.getCourseId());
+            });
+            return waitlistEntryRepository.deleteForEndedCourses(now);
+        });
+        return deleted != null ? deleted : 0;
+    }
+}
@@ -0,0 +1,76 @@
+package com.homework.backend.services;
+
+import com.homework.backend.repositories.CourseRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Recalcule courses.active_enrollment_count à partir des inscriptions ACTIVE, et courses.held_seat_count
+ * à partir des places retenues (seat_holds), et corrige les écarts.
+ * Les cours sont traités par lots, verrouillés le temps du recalcul : une inscription concurrente
+ * attend la fin du lot, le compteur corrigé ne peut donc pas la manquer.
+ */
+@Service
+public class EnrollmentCountReconciliationService {
+
+    private static final Logger log = LoggerFactory.getLogger(EnrollmentCountReconciliationService.class);
+    private static final int CHUNK_SIZE = 500;
+
+    private final CourseRepository courseRepository;
+    private final CourseDetailCache courseDetailCache;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter corrected;
+
+    public EnrollmentCountReconciliationService(CourseRepository courseRepository,
+                                                CourseDetailCache courseDetailCache,
+                                                PlatformTransactionManager transactionManager,
+                                                MeterRegistry meterRegistry) {
+        this.courseRepository = courseRepository;
+        this.courseDetailCache = courseDetailCache;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.corrected = Counter.builder("maintenance.enrollment-counts.corrected")
+                .description("Compteurs d'inscriptions corrigés par la réconciliation")
+                .register(meterRegistry);
+    }
+
+    // Au démarrage aussi : la colonne vient d'être ajoutée (à 0) lors d'une mise à jour du schéma
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${maintenance.enrollment-count-reconciliation.cron:0 40 * * * *}")
+    public void reconcile() {
+        long start = System.nanoTime();
+        long lastId = 0;
+        int fixed = 0;
+
+        while (true) {
+            List<Long> ids = courseRepository.findIdsAfter(lastId, Limit.of(CHUNK_SIZE));
+            if (ids.isEmpty()) {
+                break;
+            }
+            Integer chunkFixed = transactionTemplate.execute(status -> {
+                courseRepository.lockByIds(ids);
+                return courseRepository.reconcileActiveEnrollmentCounts(ids);
+            });
+            fixed += chunkFixed != null ? chunkFixed : 0;
+            lastId = ids.get(ids.size() - 1);
+        }
+
+        corrected.increment(fixed);
+        if (fixed > 0) {
+            courseDetailCache.evictAll();
+            log.warn("Réconciliation des inscriptions : {} compteur(s) corrigé(s) en {} ms", fixed, (System.nanoTime() - start) / 1_000_000);
+        } else {
+            log.info("Réconciliation des inscriptions : aucun écart ({} ms)", (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.homework.backend.services;
 
+import com.homework.backend.dto.EnrollmentPeriod;
 import com.homework.backend.dto.EnrollmentResponse;
 import com.homework.backend.models.Course;
 import com.homework.backend.models.Enrollment;
@@ -7,21 +8,49 @@ import com.homework.backend.models.EnrollmentStatus;
 import com.homework.backend.models.User;
 import com.homework.backend.repositories.CourseRepository;
 import com.homework.backend.repositories.EnrollmentRepository;
+import com.homework.backend.repositories.WaitlistEntryRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class EnrollmentService {
 
+    private static final String COURSE_FULL_MESSAGE = "Le cours est complet. Impossible de s'inscrire.";
+    static final String COURSE_ENDED_MESSAGE = "Ce cours est terminé. Impossible de s'inscrire.";
+    static final String WAITLIST_FIRST_MESSAGE = "Des élèves attendent une place pour ce cours : inscrivez-vous sur la liste d'attente.";
+
     private final EnrollmentRepository enrollmentRepository;
     private final CourseRepository courseRepository;
+    private final CourseDetailCache courseDetailCache;
+    private final SeatHoldService seatHoldService;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Enrollment createEnrollment(Long courseId, User student) {
+        return enroll(courseId, student, false);
+    }
+
+    /**
+     * Inscription payée dont la place était retenue (voir {@link SeatHoldService}) : la place retenue
+     * devient l'inscription. Si le compteur ne contient plus de place retenue (réconciliation),
+     * la place est réservée normalement. Une place proposée depuis la liste d'attente est traitée
+     * de la même façon par {@link #createEnrollment}.
+     */
+    @Transactional
+    public Enrollment createEnrollmentFromHeldSeat(Long courseId, User student) {
+        return enroll(courseId, student, true);
+    }
+
+    private Enrollment enroll(Long courseId, User student, boolean fromHeldSeat) {
         boolean hasActiveEnrollment = enrollmentRepository.existsByStudentIdAndCourseIdAndStatusIn(
                 student.getId(),
                 courseId,
@@ -38,14 +67,17 @@ public class EnrollmentService {
             throw new IllegalStateException("Un formateur ne peut pas s'inscrire à son propre cours.");
         }
 
-        if (course.getMaxStudents() != null) {
-            long currentEnrollmentCount = enrollmentRepository.countByCourseIdAndStatusIn(
-                    courseId,
-                    List.of(EnrollmentStatus.ACTIVE)
-            );
-            if (currentEnrollmentCount >= course.getMaxStudents()) {
-                throw new IllegalStateException("Le cours est complet. Impossible de s'inscrire.");
-            }
+        boolean heldSeat = fromHeldSeat || seatHoldService.consumeOffer(courseId, student.getId());
+
+        // Refus immédiat, sans verrou, quand le cours est terminé, déjà complet ou que la place libre revient à la liste d'attente
+        if (!heldSeat && hasEnded(course)) {
+            throw new IllegalStateException(COURSE_ENDED_MESSAGE);
+        }
+        if (!heldSeat && isFull(course)) {
+            throw new IllegalStateException(COURSE_FULL_MESSAGE);
+        }
+        if (!heldSeat && waitlistEntryRepository.existsByCourseIdAndStudentIdNot(courseId, student.getId())) {
+            throw new IllegalStateException(WAITLIST_FIRST_MESSAGE);
         }
 
         Enrollment enrollment = Enrollment.builder()
@@ -53,15 +85,67 @@ public class EnrollmentService {
                 .course(course)
                 .status(EnrollmentStatus.ACTIVE)
                 .build();
+        Enrollment savedEnrollment = enrollmentRepository.save(enrollment);
+
+        // Avant la réservation : même ordre de verrouillage (file d'attente, puis cours) que la promotion
+        waitlistEntryRepository.deleteByCourseIdAndStudentId(courseId, student.getId());
 
-        return enrollmentRepository.save(enrollment);
+        // Réservation atomique en dernier : le verrou de ligne du cours n'est tenu que jusqu'au commit.
+        // Sans place retenue, la réservation est aussi refusée si la liste d'attente a d'autres élèves
+        if (heldSeat) {
+            if (courseRepository.convertHeldSeat(courseId) == 1) {
+                course.setHeldSeatCount(Math.max(0, course.getHeldSeatCount() - 1));
+            } else if (courseRepository.tryReserveSeat(courseId) == 0) {
+                throw new IllegalStateException(COURSE_FULL_MESSAGE);
+            }
+        } else if (courseRepository.tryReserveUnclaimedSeat(courseId, student.getId()) == 0) {
+            throw new IllegalStateException(COURSE_FULL_MESSAGE);
+        }
+        course.setEnrolledStudentsCount(course.getEnrolledStudentsCount() + 1);
+        courseDetailCache.evict(courseId);
+        return savedEnrollment;
+    }
+
+    // Les places retenues par un paiement en cours comptent comme occupées
+    static boolean isFull(Course course) {
+        return course.getMaxStudents() != null
+                && course.getEnrolledStudentsCount() + course.getHeldSeatCount() >= course.getMaxStudents();
+    }
+
+    // Cours terminé (date + durée) : ses inscriptions passent à COMPLETED et libèrent le compteur, sans libérer de place
+    static boolean hasEnded(Course course) {
+        if (course.getCourseDateTime() == null) {
+            return false;
+        }
+        int duration = course.getDuration() != null ? course.getDuration() : 0;
+        return !course.getCourseDateTime().plusMinutes(duration).isAfter(LocalDateTime.now());
+    }
+
+    // Une inscription ACTIVE annulée libère sa place : compteur du cours et promotion depuis la liste d'attente.
+    // Le passage à COMPLETED des cours terminés est fait par lots (EnrollmentCompletionService)
+    @Transactional
+    public void cancelEnrollment(Enrollment enrollment) {
+        EnrollmentStatus previousStatus = enrollment.getStatus();
+        enrollment.setStatus(EnrollmentStatus.CANCELLED);
+        enrollmentRepository.save(enrollment);
+
+        if (previousStatus == EnrollmentStatus.ACTIVE) {
+            Course course = enrollment.getCourse();
+            courseRepository.decrementActiveEnrollmentCount(course.getId());
+            course.setEnrolledStudentsCount(Math.max(0, course.getEnrolledStudentsCount() - 1));
+            courseDetailCache.evict(course.getId());
+            eventPublisher.publishEvent(new SeatHoldService.SeatReleased(course.getId()));
+        }
     }
 
-    public List<EnrollmentResponse> getEnrollmentsForStudent(Long studentId) {
-        return enrollmentRepository.findByStudentId(studentId)
-                .stream()
-                .map(this::toResponse)
-                .toList();
+    /**
+     * Inscriptions de l'élève, cours et formateur compris, en une requête de projection
+     * (plus un COUNT si la page est pleine), quel que soit le nombre d'inscriptions.
+     */
+    @Transactional(readOnly = true)
+    public Page<EnrollmentResponse> getEnrollmentsForStudent(Long studentId, EnrollmentStatus status,
+                                                             EnrollmentPeriod period, Pageable pageable) {
+        return enrollmentRepository.findResponsesByStudentId(studentId, status, period, pageable);
     }
 
     public EnrollmentResponse toResponse(Enrollment enrollment) {
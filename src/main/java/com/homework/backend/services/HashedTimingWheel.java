@@ -0,0 +1,153 @@
+package com.homework.backend.services;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * Roue temporelle hachée : un tableau circulaire de {@code wheelSize} cases parcouru à raison d'une case
+ * par tick. Planifier une échéance coûte O(1), quel que soit le nombre d'échéances en attente ;
+ * la précision est d'un tick. Les échéances d'un même tick sont livrées ensemble à {@code onExpired},
+ * sur le thread de la roue : le consommateur doit rendre la main rapidement.
+ */
+public final class HashedTimingWheel<T> implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedTimingWheel.class);
+
+    private final long tickNanos;
+    private final int mask;
+    // Cases modifiées uniquement par le thread de la roue
+    private final List<LinkedList<Entry<T>>> buckets;
+    private final Queue<Entry<T>> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Consumer<List<T>> onExpired;
+    private final LongSupplier nanoTime;
+    // Absent quand la roue est avancée à la main (tests)
+    private final ScheduledExecutorService ticker;
+    private final long startNanos;
+    private long currentTick;
+
+    /**
+     * @param wheelSize nombre de cases, arrondi à la puissance de deux supérieure
+     */
+    public HashedTimingWheel(String name, Duration tick, int wheelSize, Consumer<List<T>> onExpired) {
+        this(tick, wheelSize, onExpired, System::nanoTime, Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    /**
+     * Roue sans thread, avancée par {@link #advance()} selon l'horloge fournie (tests).
+     */
+    HashedTimingWheel(Duration tick, int wheelSize, Consumer<List<T>> onExpired, LongSupplier nanoTime) {
+        this(tick, wheelSize, onExpired, nanoTime, null);
+    }
+
+    private HashedTimingWheel(Duration tick, int wheelSize, Consumer<List<T>> onExpired, LongSupplier nanoTime,
+                              ScheduledExecutorService ticker) {
+        int size = Integer.highestOneBit(Math.max(1, wheelSize - 1)) << 1;
+        this.tickNanos = tick.toNanos();
+        this.mask = size - 1;
+        this.buckets = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            buckets.add(new LinkedList<>());
+        }
+        this.onExpired = onExpired;
+        this.nanoTime = nanoTime;
+        this.startNanos = nanoTime.getAsLong();
+        this.ticker = ticker;
+        if (ticker != null) {
+            ticker.scheduleAtFixedRate(this::advance, tickNanos, tickNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Planifie {@code item} dans {@code delay} (immédiatement au prochain tick si le délai est négatif).
+     */
+    public void schedule(T item, Duration delay) {
+        incoming.add(new Entry<>(item, nanoTime.getAsLong() + Math.max(0, delay.toNanos())));
+        pending.incrementAndGet();
+    }
+
+    public int pending() {
+        return pending.get();
+    }
+
+    void advance() {
+        try {
+            long nowTick = (nanoTime.getAsLong() - startNanos) / tickNanos;
+            // Rattrape les ticks manqués si le thread a pris du retard
+            while (currentTick <= nowTick) {
+                transferIncoming();
+                expire(buckets.get((int) (currentTick & mask)));
+                currentTick++;
+            }
+        } catch (RuntimeException e) {
+            // Une exception interromprait définitivement scheduleAtFixedRate
+            log.error("Erreur dans la roue temporelle", e);
+        }
+    }
+
+    private void transferIncoming() {
+        Entry<T> entry;
+        while ((entry = incoming.poll()) != null) {
+            long deadlineTick = Math.max(Math.ceilDiv(entry.deadlineNanos - startNanos, tickNanos), currentTick);
+            entry.remainingRounds = (deadlineTick - currentTick) / buckets.size();
+            buckets.get((int) (deadlineTick & mask)).add(entry);
+        }
+    }
+
+    private void expire(LinkedList<Entry<T>> bucket) {
+        List<T> expired = null;
+        Iterator<Entry<T>> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Entry<T> entry = iterator.next();
+            if (entry.remainingRounds > 0) {
+                entry.remainingRounds--;
+                continue;
+            }
+            iterator.remove();
+            if (expired == null) {
+                expired = new ArrayList<>();
+            }
+            expired.add(entry.item);
+        }
+        if (expired != null) {
+            pending.addAndGet(-expired.size());
+            onExpired.accept(expired);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    private static final class Entry<T> {
+        private final T item;
+        private final long deadlineNanos;
+        private long remainingRounds;
+
+        private Entry(T item, long deadlineNanos) {
+            this.item = item;
+            this.deadlineNanos = deadlineNanos;
+        }
+    }
+}
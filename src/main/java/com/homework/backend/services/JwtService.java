@@ -1,26 +1,57 @@
-// src/main/java/com/homework/backend/services/JwtService.java
 package com.homework.backend.services;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import com.homework.backend.config.props.JwtProperties;
+import com.homework.backend.models.Role;
 import com.homework.backend.models.User;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Base64;
 import java.util.Date;
 import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
 public class JwtService {
 
     private final JwtProperties jwtProperties;
+    private final SecretKey signInKey;
+    private final JwtParser jwtParser;
+    private final Cache<String, Claims> verifiedClaimsCache;
+    private final AccessTokenRevocationList revocationList;
 
-    public JwtService(JwtProperties jwtProperties) {
+    public JwtService(JwtProperties jwtProperties, AccessTokenRevocationList revocationList, MeterRegistry meterRegistry) {
         this.jwtProperties = jwtProperties;
+        this.revocationList = revocationList;
+        // La clé et le parser sont immuables et thread-safe : on les construit une seule fois
+        this.signInKey = Keys.hmacShaKeyFor(Decoders.BASE64.decode(jwtProperties.getSecret()));
+        this.jwtParser = Jwts.parser()
+                .verifyWith(signInKey)
+                .build();
+        this.verifiedClaimsCache = Caffeine.newBuilder()
+                .maximumSize(jwtProperties.getClaimsCacheMaxSize())
+                .expireAfter(new TokenExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedClaimsCache, "jwt.verified-claims");
     }
 
     public String extractUsername(String token) {
@@ -28,7 +59,7 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = parseVerifiedClaims(token);
         return claimsResolver.apply(claims);
     }
 
@@ -37,10 +68,12 @@ public class JwtService {
                 .claim("firstName", user.getFirstName())
                 .claim("role", user.getRole().name())
                 .claim("id", user.getId())
+                .claim("ver", user.getTokenVersion())
+                .id(UUID.randomUUID().toString())
                 .subject(user.getEmail())
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtProperties.getExpirationMs()))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
@@ -50,39 +83,102 @@ public class JwtService {
                 .subject(subject)
                 .issuedAt(new Date(System.currentTimeMillis()))
                 .expiration(new Date(System.currentTimeMillis() + jwtProperties.getExpirationMs()))
-                .signWith(getSignInKey())
+                .signWith(signInKey)
                 .compact();
     }
 
+    /**
+     * Vérifie la signature et l'expiration du token, une seule fois par token.
+     * Les claims vérifiés sont gardés en cache (clé = empreinte SHA-256 du token)
+     * jusqu'à l'expiration du token ; un token invalide, expiré ou révoqué lève une JwtException.
+     */
+    public Claims parseVerifiedClaims(String token) {
+        Claims claims = parseSignedClaims(token);
+        if (revocationList.isRevoked(claims.getId())) {
+            throw new JwtException("Token révoqué");
+        }
+        return claims;
+    }
+
+    /**
+     * Révoque un token d'accès encore valide (déconnexion). Sans effet sur un token invalide ou déjà révoqué.
+     */
+    public void revoke(String token) {
+        try {
+            Claims claims = parseSignedClaims(token);
+            revocationList.revoke(
+                    claims.getId(),
+                    LocalDateTime.ofInstant(claims.getExpiration().toInstant(), ZoneId.systemDefault())
+            );
+        } catch (JwtException e) {
+            // Token expiré ou invalide : déjà inutilisable
+        }
+    }
+
+    private Claims parseSignedClaims(String token) {
+        String cacheKey = fingerprint(token);
+
+        Claims claims = verifiedClaimsCache.getIfPresent(cacheKey);
+        if (claims != null) {
+            return claims;
+        }
+
+        claims = jwtParser.parseSignedClaims(token).getPayload();
+        if (claims.getExpiration() != null) {
+            verifiedClaimsCache.put(cacheKey, claims);
+        }
+        return claims;
+    }
+
     public boolean isTokenValid(String token, org.springframework.security.core.userdetails.UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername())) && !isTokenExpired(token);
+        return isTokenValid(parseVerifiedClaims(token), userDetails);
     }
 
-    private boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    public boolean isTokenValid(Claims claims, org.springframework.security.core.userdetails.UserDetails userDetails) {
+        final String username = claims.getSubject();
+        if (userDetails instanceof User user && user.getTokenVersion() != null
+                && user.getTokenVersion() != extractTokenVersion(claims)) {
+            return false;
+        }
+        return (username.equals(userDetails.getUsername())) && !isTokenExpired(claims);
     }
 
-    private Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+    public Long extractUserId(Claims claims) {
+        Number id = claims.get("id", Number.class);
+        return id != null ? id.longValue() : null;
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSignInKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+    public int extractTokenVersion(Claims claims) {
+        // Les tokens émis avant l'introduction de la claim "ver" correspondent à la version 0
+        Number version = claims.get("ver", Number.class);
+        return version != null ? version.intValue() : 0;
     }
 
-    private SecretKey getSignInKey() {
-        byte[] keyBytes = Decoders.BASE64.decode(jwtProperties.getSecret());
-        return Keys.hmacShaKeyFor(keyBytes);
+    /**
+     * Construit un principal léger à partir des claims vérifiés, sans accès à la base.
+     * Seuls l'id, l'email, le prénom et le rôle sont renseignés.
+     */
+    public User buildPrincipal(Claims claims) {
+        return User.builder()
+                .id(extractUserId(claims))
+                .email(claims.getSubject())
+                .firstName(claims.get("firstName", String.class))
+                .role(Role.valueOf(claims.get("role", String.class)))
+                .tokenVersion(extractTokenVersion(claims))
+                .verifiedEmail(true)
+                .build();
+    }
+
+    private boolean isTokenExpired(Claims claims) {
+        return claims.getExpiration().before(new Date());
     }
 
     public org.springframework.security.core.Authentication getAuthentication(String token) {
-        if (token != null && isTokenValidForWebSocket(token)) {
-            Claims claims = extractAllClaims(token);
+        if (token != null) {
+            Claims claims = parseClaimsForWebSocket(token);
+            if (claims == null) {
+                return null;
+            }
             String username = claims.getSubject();
 
             String role = claims.get("role", String.class);
@@ -97,11 +193,43 @@ public class JwtService {
         return null;
     }
 
-    private boolean isTokenValidForWebSocket(String token) {
+    private Claims parseClaimsForWebSocket(String token) {
         try {
-            return !isTokenExpired(token);
+            Claims claims = parseVerifiedClaims(token);
+            return isTokenExpired(claims) ? null : claims;
         } catch (Exception e) {
-            return false;
+            return null;
+        }
+    }
+
+    private static String fingerprint(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /**
+     * Chaque entrée du cache expire exactement à la date "exp" du token correspondant.
+     */
+    private static final class TokenExpiry implements Expiry<String, Claims> {
+
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
@@ -0,0 +1,129 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.MailExecutorProperties;
+import com.homework.backend.config.props.MailExecutorProperties.OverflowPolicy;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exécuteur des envois SMTP : un thread virtuel par tâche, mais au plus maxConcurrency
+ * envois simultanés vers le serveur de mail. Au-delà de maxQueued tâches en attente,
+ * la politique de débordement s'applique (attente, retour à l'outbox ou abandon).
+ */
+public class MailExecutor implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(MailExecutor.class);
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("Mail-", 1).factory());
+    private final OverflowPolicy overflowPolicy;
+    // Connexions SMTP simultanées
+    private final Semaphore sendPermits;
+    // Tâches acceptées (en cours + en attente)
+    private final Semaphore slots;
+
+    private final AtomicInteger queued = new AtomicInteger();
+    private final AtomicInteger active = new AtomicInteger();
+    private final Timer queueLatency;
+    private final Timer taskDuration;
+    private final Counter rejected;
+
+    public MailExecutor(MailExecutorProperties properties, MeterRegistry meterRegistry) {
+        this.overflowPolicy = properties.getOverflowPolicy();
+        this.sendPermits = new Semaphore(properties.getMaxConcurrency());
+        this.slots = new Semaphore(properties.getMaxConcurrency() + properties.getMaxQueued());
+
+        Gauge.builder("mail.executor.queued", queued, AtomicInteger::get)
+                .description("Envois en attente d'une connexion SMTP")
+                .register(meterRegistry);
+        Gauge.builder("mail.executor.active", active, AtomicInteger::get)
+                .description("Envois SMTP en cours")
+                .register(meterRegistry);
+        this.queueLatency = Timer.builder("mail.executor.queue.latency")
+                .description("Attente entre la soumission et le début de l'envoi")
+                .register(meterRegistry);
+        this.taskDuration = Timer.builder("mail.executor.task.duration")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("mail.executor.rejected")
+                .tag("policy", overflowPolicy.name())
+                .register(meterRegistry);
+    }
+
+    /**
+     * Soumet une tâche d'envoi.
+     *
+     * @return false si la file est pleine (politiques SPILL et DROP) : l'appelant décide du sort des messages
+     */
+    public boolean submit(Runnable task) {
+        if (!acquireSlot()) {
+            rejected.increment();
+            return false;
+        }
+
+        long submittedAt = System.nanoTime();
+        queued.incrementAndGet();
+        executor.execute(() -> {
+            try {
+                sendPermits.acquire();
+            } catch (InterruptedException e) {
+                queued.decrementAndGet();
+                slots.release();
+                Thread.currentThread().interrupt();
+                return;
+            }
+            queued.decrementAndGet();
+            active.incrementAndGet();
+            queueLatency.record(System.nanoTime() - submittedAt, TimeUnit.NANOSECONDS);
+            try {
+                taskDuration.record(task);
+            } catch (RuntimeException e) {
+                log.error("Échec d'une tâche d'envoi d'email", e);
+            } finally {
+                active.decrementAndGet();
+                sendPermits.release();
+                slots.release();
+            }
+        });
+        return true;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    private boolean acquireSlot() {
+        if (overflowPolicy != OverflowPolicy.BLOCK) {
+            return slots.tryAcquire();
+        }
+        try {
+            slots.acquire();
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+                // Les messages non terminés restent SENDING et seront repris à l'expiration du bail
+                executor.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.PasswordHashingProperties;
+import com.homework.backend.exceptions.ServiceOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Exécute les opérations BCrypt sur un pool dédié et borné, pour qu'un afflux de connexions
+ * ne monopolise pas les threads Tomcat. Quand le pool et sa file sont pleins, la demande
+ * est rejetée immédiatement avec une {@link ServiceOverloadedException} (HTTP 503).
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final long RETRY_AFTER_SECONDS = 2;
+
+    private final PasswordEncoder passwordEncoder;
+    private final ThreadPoolExecutor executor;
+    private final long timeoutMs;
+    private final Counter rejected;
+
+    public PasswordHashingService(PasswordEncoder passwordEncoder,
+                                  PasswordHashingProperties properties,
+                                  MeterRegistry meterRegistry) {
+        this.passwordEncoder = passwordEncoder;
+        this.timeoutMs = properties.getTimeout().toMillis();
+
+        int threads = properties.getThreads() > 0 ? properties.getThreads() : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads,
+                threads,
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "Password-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.rejected = Counter.builder("auth.password.hashing.rejected")
+                .description("Opérations BCrypt refusées car le pool est saturé")
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.queue", executor, e -> e.getQueue().size())
+                .register(meterRegistry);
+        Gauge.builder("auth.password.hashing.active", executor, ThreadPoolExecutor::getActiveCount)
+                .register(meterRegistry);
+    }
+
+    public boolean matches(String rawPassword, String encodedPassword) {
+        if (rawPassword == null || encodedPassword == null) {
+            return false;
+        }
+        return submit(() -> passwordEncoder.matches(rawPassword, encodedPassword));
+    }
+
+    public String encode(String rawPassword) {
+        return submit(() -> passwordEncoder.encode(rawPassword));
+    }
+
+    /**
+     * Indique si le hash a été produit avec un coût inférieur au coût calibré au démarrage.
+     */
+    public boolean needsUpgrade(String encodedPassword) {
+        return passwordEncoder.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T submit(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new ServiceOverloadedException("Service momentanément surchargé, veuillez réessayer.", RETRY_AFTER_SECONDS);
+        }
+
+        try {
+            return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            rejected.increment();
+            throw new ServiceOverloadedException("Service momentanément surchargé, veuillez réessayer.", RETRY_AFTER_SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Hachage du mot de passe interrompu.", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("Erreur lors du hachage du mot de passe.", e.getCause());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -9,6 +9,7 @@ import com.homework.backend.models.*;
 import com.homework.backend.repositories.CourseRepository;
 import com.homework.backend.repositories.EnrollmentRepository;
 import com.homework.backend.repositories.PaymentRepository;
+import com.homework.backend.repositories.WaitlistEntryRepository;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
 import com.stripe.model.Refund;
@@ -18,7 +19,11 @@ import com.stripe.param.RefundCreateParams;
 import jakarta.transaction.Transactional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
@@ -40,19 +45,30 @@ public class PaymentService {
     private final EnrollmentService enrollmentService;
     private final StripeProperties stripeProperties;
     private final EmailService emailService;
+    private final SeatHoldService seatHoldService;
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    // Écritures conservées même quand la méthode appelante termine par une exception (et annule sa transaction)
+    private final TransactionTemplate independentTransaction;
 
     public PaymentService(CourseRepository courseRepository,
                           EnrollmentRepository enrollmentRepository,
                           PaymentRepository paymentRepository,
                           EnrollmentService enrollmentService,
                           StripeProperties stripeProperties,
-                          EmailService emailService) {
+                          EmailService emailService,
+                          SeatHoldService seatHoldService,
+                          WaitlistEntryRepository waitlistEntryRepository,
+                          PlatformTransactionManager transactionManager) {
         this.courseRepository = courseRepository;
         this.enrollmentRepository = enrollmentRepository;
         this.paymentRepository = paymentRepository;
         this.enrollmentService = enrollmentService;
         this.stripeProperties = stripeProperties;
         this.emailService = emailService;
+        this.seatHoldService = seatHoldService;
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.independentTransaction = new TransactionTemplate(transactionManager);
+        this.independentTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
     }
 
     public PaymentIntentResponse createPaymentIntent(PaymentIntentRequest request, User student) {
@@ -82,6 +98,20 @@ public class PaymentService {
             throw new IllegalStateException("Un paiement est déjà en cours pour ce cours. Veuillez finaliser le paiement existant.");
         }
 
+        // Refus avant tout appel à Stripe ; la place est ensuite retenue de façon atomique (holdSeat).
+        // Un élève promu de la liste d'attente paie la place qui lui est proposée
+        if (EnrollmentService.hasEnded(course)) {
+            throw new IllegalStateException(EnrollmentService.COURSE_ENDED_MESSAGE);
+        }
+        if (!seatHoldService.hasOffer(course.getId(), student.getId())) {
+            if (EnrollmentService.isFull(course)) {
+                throw new IllegalStateException("Le cours est complet. Impossible de s'inscrire.");
+            }
+            if (waitlistEntryRepository.existsByCourseIdAndStudentIdNot(course.getId(), student.getId())) {
+                throw new IllegalStateException(EnrollmentService.WAITLIST_FIRST_MESSAGE);
+            }
+        }
+
         BigDecimal amount = course.getPrice();
         validateAmount(amount);
 
@@ -120,6 +150,7 @@ public class PaymentService {
             PaymentIntent intent = PaymentIntent.create(params);
             payment.setStripePaymentIntentId(intent.getId());
             paymentRepository.save(payment);
+            SeatHold hold = holdSeat(course, student, payment, intent);
 
             return new PaymentIntentResponse(
                     intent.getClientSecret(),
@@ -129,7 +160,8 @@ public class PaymentService {
                     payment.getPlatformFee(),
                     payment.getTeacherAmount(),
                     payment.getId(),
-                    stripeProperties.getPublishableKey()
+                    stripeProperties.getPublishableKey(),
+                    hold.getExpiresAt()
             );
         } catch (StripeException e) {
             log.error("Stripe error while creating payment intent: {}", e.getMessage(), e);
@@ -165,13 +197,26 @@ public class PaymentService {
                     throw new IllegalStateException("Le paiement nécessite une action supplémentaire.");
                 }
                 case "succeeded" -> {
-                    Enrollment enrollment = enrollmentService.createEnrollment(payment.getCourse().getId(), student);
+                    // Hold expiré entre-temps : réservation ordinaire, refusée si le cours s'est rempli
+                    Long courseId = payment.getCourse().getId();
+                    Enrollment enrollment = seatHoldService.consume(payment.getId())
+                            ? enrollmentService.createEnrollmentFromHeldSeat(courseId, student)
+                            : enrollmentService.createEnrollment(courseId, student);
                     payment.setEnrollment(enrollment);
                     payment.setStatus(PaymentStatus.SUCCEEDED);
                     paymentRepository.save(payment);
                     emailService.sendEnrollmentConfirmationEmail(student, payment.getCourse());
                     return enrollmentService.toResponse(enrollment);
                 }
+                case "canceled" -> {
+                    // Place rendue et statut écrits hors de cette transaction, annulée par l'exception : sans hold,
+                    // plus aucune expiration ne clôturerait un paiement resté PENDING
+                    seatHoldService.release(payment);
+                    independentTransaction.executeWithoutResult(status ->
+                            paymentRepository.updateStatus(payment.getId(), PaymentStatus.CANCELED));
+                    payment.setStatus(PaymentStatus.CANCELED);
+                    throw new IllegalStateException("Le paiement a été annulé.");
+                }
                 default -> throw new IllegalStateException("Statut de paiement inattendu : " + intent.getStatus());
             }
         } catch (StripeException e) {
@@ -180,6 +225,53 @@ public class PaymentService {
         }
     }
 
+    /**
+     * Retient une place après la création du PaymentIntent : le verrou de ligne du cours n'est pas tenu
+     * pendant l'appel à Stripe. Si la dernière place a été prise entre-temps, le PaymentIntent est annulé.
+     */
+    private SeatHold holdSeat(Course course, User student, Payment payment, PaymentIntent intent) {
+        try {
+            return seatHoldService.hold(course, student, payment);
+        } catch (IllegalStateException e) {
+            try {
+                intent.cancel();
+            } catch (StripeException cancelError) {
+                log.warn("Impossible d'annuler le PaymentIntent {} d'un cours complet : {}", intent.getId(), cancelError.getMessage());
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Place retenue expirée avant la confirmation : le PaymentIntent est annulé pour que l'élève
+     * ne puisse plus payer une place qui n'est plus garantie.
+     */
+    @EventListener
+    public void onSeatHoldExpired(SeatHoldService.HoldExpired event) {
+        if (event.paymentId() == null) {
+            return;
+        }
+        paymentRepository.findById(event.paymentId())
+                .filter(payment -> payment.getStatus() == PaymentStatus.PENDING
+                        || payment.getStatus() == PaymentStatus.REQUIRES_ACTION)
+                .ifPresent(this::cancelExpiredPayment);
+    }
+
+    private void cancelExpiredPayment(Payment payment) {
+        if (payment.getStripePaymentIntentId() != null) {
+            try {
+                PaymentIntent.retrieve(payment.getStripePaymentIntentId()).cancel();
+            } catch (StripeException e) {
+                // Déjà payé ou déjà annulé : confirmPayment traitera le statut réel
+                log.warn("Impossible d'annuler le PaymentIntent {} après expiration de la place retenue : {}",
+                        payment.getStripePaymentIntentId(), e.getMessage());
+                return;
+            }
+        }
+        payment.setStatus(PaymentStatus.CANCELED);
+        paymentRepository.save(payment);
+    }
+
     public void refundEnrollment(PaymentRefundRequest request, User student) {
         Payment payment = paymentRepository.findByEnrollmentId(request.enrollmentId())
                 .orElseThrow(() -> new IllegalArgumentException("Aucun paiement trouvé pour cette inscription."));
@@ -210,8 +302,7 @@ public class PaymentService {
             payment.setStatus(PaymentStatus.REFUNDED);
             paymentRepository.save(payment);
 
-            enrollment.setStatus(EnrollmentStatus.CANCELLED);
-            enrollmentRepository.save(enrollment);
+            enrollmentService.cancelEnrollment(enrollment);
 
             emailService.sendEnrollmentCancellationEmail(student, course);
         } catch (StripeException e) {
@@ -0,0 +1,151 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.JwtProperties;
+import com.homework.backend.models.OAuth2LoginCode;
+import com.homework.backend.models.RefreshToken;
+import com.homework.backend.models.User;
+import com.homework.backend.repositories.OAuth2LoginCodeRepository;
+import com.homework.backend.repositories.RefreshTokenRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Refresh tokens opaques, à usage unique (rotation à chaque rafraîchissement).
+ * Seule leur empreinte SHA-256 est stockée. La réutilisation d'un token déjà consommé
+ * révoque tous les refresh tokens et tous les tokens d'accès du compte.
+ * Gère aussi les codes à usage unique de la connexion Google, échangés contre une première paire de tokens.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+    private static final int TOKEN_BYTES = 32;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final OAuth2LoginCodeRepository loginCodeRepository;
+    private final TokenVersionService tokenVersionService;
+    private final JwtProperties jwtProperties;
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               OAuth2LoginCodeRepository loginCodeRepository,
+                               TokenVersionService tokenVersionService,
+                               JwtProperties jwtProperties) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.loginCodeRepository = loginCodeRepository;
+        this.tokenVersionService = tokenVersionService;
+        this.jwtProperties = jwtProperties;
+    }
+
+    @Transactional
+    public String issue(User user) {
+        String rawToken = newRawToken();
+
+        refreshTokenRepository.save(RefreshToken.builder()
+                .tokenHash(hash(rawToken))
+                .user(user)
+                .expiresAt(LocalDateTime.now().plus(jwtProperties.getRefreshExpiration()))
+                .build());
+        return rawToken;
+    }
+
+    /**
+     * Consomme un refresh token et retourne l'utilisateur associé ; l'appelant émet ensuite une nouvelle paire.
+     */
+    @Transactional(noRollbackFor = IllegalStateException.class)
+    public User consume(String rawToken) {
+        RefreshToken refreshToken = refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .orElseThrow(() -> new IllegalArgumentException("Refresh token invalide."));
+
+        User user = refreshToken.getUser();
+        if (refreshToken.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Refresh token expiré.");
+        }
+        if (refreshTokenRepository.markRevoked(refreshToken.getId(), LocalDateTime.now()) == 0) {
+            // Token déjà utilisé : probablement volé, on coupe toutes les sessions du compte
+            log.warn("Réutilisation d'un refresh token révoqué pour l'utilisateur {}", user.getId());
+            refreshTokenRepository.revokeAllForUser(user.getId(), LocalDateTime.now());
+            tokenVersionService.revokeAllTokens(user.getId());
+            throw new IllegalStateException("Refresh token déjà utilisé. Veuillez vous reconnecter.");
+        }
+        if (!user.isEnabled()) {
+            throw new IllegalStateException("Compte désactivé.");
+        }
+        return user;
+    }
+
+    @Transactional
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.markRevoked(token.getId(), LocalDateTime.now()));
+    }
+
+    /**
+     * Code à usage unique remis au frontend dans l'URL de redirection Google, à la place des tokens.
+     */
+    @Transactional
+    public String issueLoginCode(User user) {
+        String rawCode = newRawToken();
+        loginCodeRepository.save(OAuth2LoginCode.builder()
+                .codeHash(hash(rawCode))
+                .user(user)
+                .expiresAt(LocalDateTime.now().plus(jwtProperties.getOauth2CodeTtl()))
+                .build());
+        return rawCode;
+    }
+
+    /**
+     * Consomme un code de connexion Google et retourne l'utilisateur associé ; l'appelant émet ensuite une paire de tokens.
+     */
+    @Transactional
+    public User consumeLoginCode(String rawCode) {
+        OAuth2LoginCode loginCode = loginCodeRepository.findByCodeHash(hash(rawCode))
+                .orElseThrow(() -> new IllegalArgumentException("Code de connexion invalide."));
+        if (loginCodeRepository.consume(loginCode.getId()) == 0) {
+            throw new IllegalArgumentException("Code de connexion déjà utilisé.");
+        }
+        if (loginCode.getExpiresAt().isBefore(LocalDateTime.now())) {
+            throw new IllegalArgumentException("Code de connexion expiré.");
+        }
+        User user = loginCode.getUser();
+        if (!user.isEnabled()) {
+            throw new IllegalStateException("Compte désactivé.");
+        }
+        return user;
+    }
+
+    @Scheduled(cron = "0 30 3 * * *")
+    @Transactional
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        int deleted = refreshTokenRepository.deleteExpired(now);
+        int deletedCodes = loginCodeRepository.deleteExpired(now);
+        log.info("Refresh tokens expirés purgés : {}, codes de connexion : {}", deleted, deletedCodes);
+    }
+
+    private String newRawToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        secureRandom.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.US_ASCII));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
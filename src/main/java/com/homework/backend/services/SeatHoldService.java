@@ -0,0 +1,246 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.SeatHoldProperties;
+import com.homework.backend.models.Course;
+import com.homework.backend.models.Payment;
+import com.homework.backend.models.SeatHold;
+import com.homework.backend.models.User;
+import com.homework.backend.repositories.CourseRepository;
+import com.homework.backend.repositories.SeatHoldRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Places retenues pendant le paiement : une place est prise sur la capacité du cours à la création
+ * du PaymentIntent et rendue à la confirmation (elle devient l'inscription), à l'annulation ou à
+ * l'expiration du délai.
+ * Les échéances sont suivies par une {@link HashedTimingWheel} ; la table seat_holds fait foi :
+ * elle est relue au démarrage et balayée périodiquement pour les holds qu'aucune roue ne suit
+ * (autre instance arrêtée). Chaque expiration publie un {@link HoldExpired} après commit, et chaque
+ * place rendue un {@link SeatReleased} (promotion depuis la liste d'attente).
+ */
+@Service
+public class SeatHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatHoldService.class);
+
+    private final SeatHoldRepository seatHoldRepository;
+    private final CourseRepository courseRepository;
+    private final SeatHoldProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Counter expired;
+    // Le thread de la roue ne fait que transmettre : les libérations s'exécutent ici
+    private final ExecutorService expiryExecutor = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("seat-hold-expiry-", 0).factory());
+    private final HashedTimingWheel<Long> wheel;
+
+    public SeatHoldService(SeatHoldRepository seatHoldRepository,
+                           CourseRepository courseRepository,
+                           SeatHoldProperties properties,
+                           PlatformTransactionManager transactionManager,
+                           ApplicationEventPublisher eventPublisher,
+                           MeterRegistry meterRegistry) {
+        this.seatHoldRepository = seatHoldRepository;
+        this.courseRepository = courseRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.wheel = new HashedTimingWheel<>("seat-hold-wheel", properties.getTick(), properties.getWheelSize(),
+                holdIds -> expiryExecutor.execute(() -> releaseExpired(holdIds)));
+        this.expired = Counter.builder("payments.seat-holds.expired")
+                .description("Places retenues libérées à l'expiration du délai de paiement")
+                .register(meterRegistry);
+        Gauge.builder("payments.seat-holds.scheduled", wheel, HashedTimingWheel::pending)
+                .description("Échéances de places retenues suivies par la roue temporelle de cette instance")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Retient une place pour ce paiement, dans la transaction courante. Si une place a été proposée
+     * à l'élève (liste d'attente), le paiement lui est rattaché et son délai repart de zéro.
+     *
+     * @throws IllegalStateException si le cours est complet (places retenues comprises) ou si, sans place proposée,
+     *                               d'autres élèves attendent sur la liste d'attente
+     */
+    public SeatHold hold(Course course, User student, Payment payment) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(properties.getTtl());
+        SeatHold hold = seatHoldRepository.lockOffer(course.getId(), student.getId())
+                .map(offer -> {
+                    offer.setPayment(payment);
+                    offer.setExpiresAt(expiresAt);
+                    return offer;
+                })
+                .orElseGet(() -> {
+                    // Sans place proposée, une place libre revient d'abord à la liste d'attente
+                    if (courseRepository.tryHoldUnclaimedSeat(course.getId(), student.getId()) == 0) {
+                        throw new IllegalStateException("Le cours est complet. Impossible de s'inscrire.");
+                    }
+                    course.setHeldSeatCount(course.getHeldSeatCount() + 1);
+                    return seatHoldRepository.save(SeatHold.builder()
+                            .course(course)
+                            .student(student)
+                            .payment(payment)
+                            .expiresAt(expiresAt)
+                            .build());
+                });
+        // L'ancienne échéance d'une place proposée ne trouvera plus de hold expiré
+        AfterCommit.run(() -> wheel.schedule(hold.getId(), properties.getTtl()));
+        return hold;
+    }
+
+    /**
+     * Propose une place à un élève promu de la liste d'attente, pendant {@code ttl}.
+     *
+     * @return le hold, ou vide si le cours est terminé ou n'a plus de place libre
+     */
+    public Optional<SeatHold> offer(Course course, User student, Duration ttl) {
+        if (EnrollmentService.hasEnded(course) || courseRepository.tryHoldSeat(course.getId()) == 0) {
+            return Optional.empty();
+        }
+        SeatHold hold = seatHoldRepository.save(SeatHold.builder()
+                .course(course)
+                .student(student)
+                .expiresAt(LocalDateTime.now().plus(ttl))
+                .build());
+        AfterCommit.run(() -> wheel.schedule(hold.getId(), ttl));
+        return Optional.of(hold);
+    }
+
+    public boolean hasOffer(Long courseId, Long studentId) {
+        return seatHoldRepository.existsByCourseIdAndStudentIdAndPaymentIsNull(courseId, studentId);
+    }
+
+    /**
+     * Supprime la place proposée à l'élève, s'il y en a une.
+     *
+     * @return true si une place était proposée : l'appelant la convertit en inscription
+     */
+    public boolean consumeOffer(Long courseId, Long studentId) {
+        return seatHoldRepository.deleteOffer(courseId, studentId) == 1;
+    }
+
+    /**
+     * Supprime le hold du paiement confirmé.
+     *
+     * @return true si la place était encore retenue : l'appelant la convertit en inscription
+     */
+    public boolean consume(Long paymentId) {
+        return seatHoldRepository.deleteByPaymentId(paymentId) == 1;
+    }
+
+    /**
+     * Rend la place retenue pour un paiement annulé. Transaction séparée : la libération est conservée
+     * même si l'appelant termine par une exception.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void release(Payment payment) {
+        if (seatHoldRepository.deleteByPaymentId(payment.getId()) == 1) {
+            courseRepository.releaseHeldSeats(payment.getCourse().getId(), 1);
+            eventPublisher.publishEvent(new SeatReleased(payment.getCourse().getId()));
+        }
+    }
+
+    // Holds en cours au démarrage : ceux déjà expirés sont libérés au premier tick
+    @EventListener(ApplicationReadyEvent.class)
+    public void scheduleExistingHolds() {
+        LocalDateTime now = LocalDateTime.now();
+        List<SeatHoldRepository.PendingHold> holds = seatHoldRepository.findAllPending();
+        holds.forEach(hold -> wheel.schedule(hold.getId(), Duration.between(now, hold.getExpiresAt())));
+        log.info("Places retenues : {} échéance(s) rechargée(s) depuis la base", holds.size());
+    }
+
+    // Filet de sécurité : holds d'une instance arrêtée ou dont l'échéance a été perdue
+    @Scheduled(fixedDelayString = "${payments.seat-hold.sweep-interval:1m}",
+            initialDelayString = "${payments.seat-hold.sweep-interval:1m}")
+    public void sweepExpired() {
+        int batchSize = properties.getSweepBatchSize();
+        int released;
+        do {
+            released = releaseLocked(() -> seatHoldRepository.lockExpired(LocalDateTime.now(), batchSize));
+        } while (released == batchSize);
+    }
+
+    void releaseExpired(List<Long> holdIds) {
+        try {
+            releaseLocked(() -> seatHoldRepository.lockExpiredByIds(holdIds, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            // Les holds restent en base : le balayage périodique les reprendra
+            log.error("Échec de la libération de {} place(s) retenue(s) expirée(s)", holdIds.size(), e);
+        }
+    }
+
+    /**
+     * Supprime les holds verrouillés et rend leurs places, dans une seule transaction.
+     * Les holds déjà consommés ou verrouillés par une autre instance ne sont pas renvoyés par {@code lockHolds}.
+     */
+    private int releaseLocked(Supplier<List<SeatHold>> lockHolds) {
+        List<HoldExpired> released = transactionTemplate.execute(status -> {
+            List<SeatHold> holds = lockHolds.get();
+            if (holds.isEmpty()) {
+                return List.of();
+            }
+            seatHoldRepository.deleteByIdIn(holds.stream().map(SeatHold::getId).toList());
+            // Cours mis à jour dans l'ordre des ids : pas d'interblocage entre deux libérations
+            Map<Long, Long> countsByCourse = holds.stream()
+                    .collect(Collectors.groupingBy(hold -> hold.getCourse().getId(), TreeMap::new, Collectors.counting()));
+            countsByCourse.forEach((courseId, count) -> courseRepository.releaseHeldSeats(courseId, count.intValue()));
+            return holds.stream()
+                    .map(hold -> new HoldExpired(hold.getId(), hold.getCourse().getId(),
+                            hold.getPayment() != null ? hold.getPayment().getId() : null))
+                    .toList();
+        });
+        if (released == null || released.isEmpty()) {
+            return 0;
+        }
+
+        expired.increment(released.size());
+        released.forEach(eventPublisher::publishEvent);
+        released.stream().map(HoldExpired::courseId).distinct().map(SeatReleased::new).forEach(eventPublisher::publishEvent);
+        return released.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        wheel.close();
+        expiryExecutor.shutdownNow();
+    }
+
+    /**
+     * Place retenue libérée faute de paiement dans le délai, publié après le commit de la libération.
+     * {@code paymentId} est null pour une place proposée depuis la liste d'attente.
+     */
+    public record HoldExpired(Long holdId, Long courseId, Long paymentId) {
+    }
+
+    /**
+     * Une ou plusieurs places du cours sont redevenues libres (hold libéré, inscription annulée).
+     * Les écouteurs transactionnels le reçoivent après le commit qui les a libérées.
+     */
+    public record SeatReleased(Long courseId) {
+    }
+}
@@ -0,0 +1,106 @@
+package com.homework.backend.services;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Limiteur "token bucket" en mémoire, une clé = un seau.
+ * Les seaux sont répartis sur des segments verrouillés indépendamment (lock striping),
+ * ce qui évite une contention globale sans recourir à une structure concurrente par clé.
+ */
+public final class TokenBucketLimiter {
+
+    private static final int STRIPES = 64;
+
+    private final double capacity;
+    private final double tokensPerNano;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public TokenBucketLimiter(int capacity, long refillPeriodNanos) {
+        this.capacity = capacity;
+        this.tokensPerNano = capacity / (double) refillPeriodNanos;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Consomme un jeton pour cette clé.
+     *
+     * @return 0 si la demande est acceptée, sinon le délai en nanosecondes avant qu'un jeton soit disponible
+     */
+    public long tryAcquire(String key, long nowNanos) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, nowNanos);
+                stripe.buckets.put(key, bucket);
+            } else {
+                refill(bucket, nowNanos);
+            }
+
+            if (bucket.tokens >= 1) {
+                bucket.tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - bucket.tokens) / tokensPerNano);
+        }
+    }
+
+    /**
+     * Supprime les seaux inactifs depuis plus de idleNanos.
+     * Un seau inactif assez longtemps est plein : le supprimer ne change pas les décisions futures.
+     */
+    public int evictIdle(long nowNanos, long idleNanos) {
+        long fullRefillNanos = (long) Math.ceil(capacity / tokensPerNano);
+        long threshold = Math.max(idleNanos, fullRefillNanos);
+        int evicted = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                int before = stripe.buckets.size();
+                stripe.buckets.values().removeIf(bucket -> nowNanos - bucket.lastRefillNanos >= threshold);
+                evicted += before - stripe.buckets.size();
+            }
+        }
+        return evicted;
+    }
+
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private void refill(Bucket bucket, long nowNanos) {
+        long elapsed = nowNanos - bucket.lastRefillNanos;
+        if (elapsed > 0) {
+            bucket.tokens = Math.min(capacity, bucket.tokens + elapsed * tokensPerNano);
+            bucket.lastRefillNanos = nowNanos;
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return stripes[hash & (STRIPES - 1)];
+    }
+
+    private static final class Stripe {
+        private final Map<String, Bucket> buckets = new HashMap<>();
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefillNanos;
+
+        private Bucket(double tokens, long lastRefillNanos) {
+            this.tokens = tokens;
+            this.lastRefillNanos = lastRefillNanos;
+        }
+    }
+}
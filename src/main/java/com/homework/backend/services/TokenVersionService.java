@@ -0,0 +1,57 @@
+package com.homework.backend.services;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.homework.backend.config.props.JwtProperties;
+import com.homework.backend.repositories.UserRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Version des tokens de chaque compte, utilisée en mode d'authentification CLAIMS.
+ * Un token n'est accepté que si sa claim "ver" correspond à la version courante du compte :
+ * incrémenter la version révoque tous les tokens émis (changement de rôle, désactivation).
+ * La version est gardée en cache peu de temps pour éviter une requête SQL par appel.
+ */
+@Service
+public class TokenVersionService {
+
+    // Valeur mise en cache pour un compte supprimé ou désactivé : aucun token ne correspond
+    private static final int INACTIVE_ACCOUNT = -1;
+
+    private final UserRepository userRepository;
+    private final CachedUserDetailsService userDetailsService;
+    private final LoadingCache<Long, Integer> versions;
+
+    public TokenVersionService(UserRepository userRepository,
+                               CachedUserDetailsService userDetailsService,
+                               JwtProperties jwtProperties,
+                               MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(jwtProperties.getTokenVersionCacheTtl())
+                .recordStats()
+                .build(userId -> userRepository.findActiveTokenVersionById(userId).orElse(INACTIVE_ACCOUNT));
+        CaffeineCacheMetrics.monitor(meterRegistry, versions, "jwt.token-versions");
+    }
+
+    public boolean isCurrent(Long userId, int tokenVersion) {
+        return userId != null && versions.get(userId) == tokenVersion;
+    }
+
+    /**
+     * Révoque tous les tokens déjà émis pour ce compte.
+     * Les autres instances le prennent en compte au plus tard après jwt.token-version-cache-ttl.
+     */
+    @Transactional
+    public void revokeAllTokens(Long userId) {
+        userRepository.incrementTokenVersion(userId);
+        versions.invalidate(userId);
+        AfterCommit.run(() -> versions.invalidate(userId));
+        userDetailsService.evictById(userId);
+    }
+}
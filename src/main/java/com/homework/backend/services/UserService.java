@@ -3,18 +3,31 @@ package com.homework.backend.services;
 import com.homework.backend.dto.ProfileUpdateRequest;
 import com.homework.backend.models.Role;
 import com.homework.backend.models.User;
+import com.homework.backend.repositories.CourseRepository;
 import com.homework.backend.repositories.UserRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 public class UserService {
 
     private final UserRepository userRepository;
+    private final CachedUserDetailsService userDetailsService;
+    private final CourseDetailCache courseDetailCache;
+    private final CourseRepository courseRepository;
+    private final CourseSearchCache courseSearchCache;
+    private final CourseSuggestionIndex courseSuggestionIndex;
 
-    public UserService(UserRepository userRepository) {
+    public UserService(UserRepository userRepository, CachedUserDetailsService userDetailsService, CourseDetailCache courseDetailCache, CourseRepository courseRepository, CourseSearchCache courseSearchCache, CourseSuggestionIndex courseSuggestionIndex) {
         this.userRepository = userRepository;
+        this.userDetailsService = userDetailsService;
+        this.courseDetailCache = courseDetailCache;
+        this.courseRepository = courseRepository;
+        this.courseSearchCache = courseSearchCache;
+        this.courseSuggestionIndex = courseSuggestionIndex;
     }
 
+    @Transactional
     public User updateUserProfile(Long userId, ProfileUpdateRequest request) {
         User userToUpdate = userRepository.findById(userId)
                 .orElseThrow(() -> new RuntimeException("Utilisateur non trouvé avec l'id : " + userId));
@@ -26,6 +39,15 @@ public class UserService {
             userToUpdate.setBio(request.bio());
         }
 
-        return userRepository.save(userToUpdate);
+        User savedUser = userRepository.save(userToUpdate);
+        userDetailsService.evict(savedUser.getEmail());
+        if (Role.TEACHER.equals(savedUser.getRole())) {
+            courseRepository.bumpVersionByTeacherId(savedUser.getId());
+            courseDetailCache.evictByTeacher(savedUser.getId());
+            // Le nom du formateur est indexé pour la recherche par mot-clé
+            courseSearchCache.bumpCatalogVersion();
+            courseSuggestionIndex.reindexTeacher(savedUser.getId());
+        }
+        return savedUser;
     }
 }
@@ -0,0 +1,77 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.VerificationTokenPurgeProperties;
+import com.homework.backend.repositories.EmailVerificationTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Purge périodique des tokens de vérification d'email expirés ou utilisés.
+ * La suppression se fait par lots, une transaction courte par lot, pour ne jamais garder
+ * de verrous longtemps sur email_verification_tokens.
+ */
+@Service
+public class VerificationTokenPurgeService {
+
+    private static final Logger log = LoggerFactory.getLogger(VerificationTokenPurgeService.class);
+
+    private final EmailVerificationTokenRepository tokenRepository;
+    private final VerificationTokenPurgeProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter purgedRows;
+    private final Timer purgeDuration;
+
+    public VerificationTokenPurgeService(EmailVerificationTokenRepository tokenRepository,
+                                         VerificationTokenPurgeProperties properties,
+                                         PlatformTransactionManager transactionManager,
+                                         MeterRegistry meterRegistry) {
+        this.tokenRepository = tokenRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.purgedRows = Counter.builder("maintenance.verification-tokens.purged")
+                .description("Tokens de vérification d'email supprimés")
+                .register(meterRegistry);
+        this.purgeDuration = Timer.builder("maintenance.verification-tokens.purge")
+                .description("Durée d'une exécution de la purge des tokens de vérification")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${maintenance.verification-token-purge.cron:0 17 * * * *}")
+    public void purge() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+
+        long start = System.nanoTime();
+        LocalDateTime now = LocalDateTime.now();
+        int chunkSize = properties.getChunkSize();
+        int total = 0;
+        int chunks = 0;
+
+        while (chunks < properties.getMaxChunksPerRun()) {
+            Integer deleted = transactionTemplate.execute(status -> tokenRepository.deleteExpiredOrUsedChunk(now, chunkSize));
+            chunks++;
+            int count = deleted != null ? deleted : 0;
+            total += count;
+            if (count < chunkSize) {
+                break;
+            }
+        }
+
+        long elapsed = System.nanoTime() - start;
+        purgeDuration.record(elapsed, TimeUnit.NANOSECONDS);
+        purgedRows.increment(total);
+        log.info("Purge des tokens de vérification : {} lignes supprimées en {} lot(s), {} ms",
+                total, chunks, elapsed / 1_000_000);
+    }
+}
@@ -0,0 +1,201 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.WaitlistProperties;
+import com.homework.backend.dto.WaitlistOfferMessage;
+import com.homework.backend.dto.WaitlistPositionResponse;
+import com.homework.backend.models.Course;
+import com.homework.backend.models.EnrollmentStatus;
+import com.homework.backend.models.SeatHold;
+import com.homework.backend.models.User;
+import com.homework.backend.models.WaitlistEntry;
+import com.homework.backend.repositories.CourseRepository;
+import com.homework.backend.repositories.EnrollmentRepository;
+import com.homework.backend.repositories.WaitlistEntryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityNotFoundException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Liste d'attente des cours complets, servie dans l'ordre d'arrivée. Quand une place se libère
+ * (inscription annulée, place retenue rendue), les premiers élèves de la file sont promus : une place
+ * leur est retenue pendant courses.waitlist.offer-ttl (voir {@link SeatHoldService#offer}), et ils en
+ * sont avertis par WebSocket (/user/queue/waitlist) et par email. Une place proposée et non payée
+ * à temps est rendue, ce qui promeut l'élève suivant.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+    private static final List<EnrollmentStatus> ENROLLED_STATUSES = List.of(EnrollmentStatus.ACTIVE, EnrollmentStatus.COMPLETED);
+
+    private final WaitlistEntryRepository waitlistEntryRepository;
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final SeatHoldService seatHoldService;
+    private final EmailService emailService;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final WaitlistProperties properties;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter promotions;
+
+    public WaitlistService(WaitlistEntryRepository waitlistEntryRepository,
+                           CourseRepository courseRepository,
+                           EnrollmentRepository enrollmentRepository,
+                           SeatHoldService seatHoldService,
+                           EmailService emailService,
+                           SimpMessagingTemplate messagingTemplate,
+                           WaitlistProperties properties,
+                           PlatformTransactionManager transactionManager,
+                           MeterRegistry meterRegistry) {
+        this.waitlistEntryRepository = waitlistEntryRepository;
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.seatHoldService = seatHoldService;
+        this.emailService = emailService;
+        this.messagingTemplate = messagingTemplate;
+        this.properties = properties;
+        // Les promotions suivent le commit qui a libéré la place : toujours dans une nouvelle transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.promotions = Counter.builder("courses.waitlist.promotions")
+                .description("Élèves promus depuis la liste d'attente (place retenue et notification)")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    public WaitlistPositionResponse join(Long courseId, User student) {
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> new IllegalArgumentException("Cours non trouvé."));
+
+        if (course.getTeacher().getId().equals(student.getId())) {
+            throw new IllegalStateException("Un formateur ne peut pas s'inscrire à son propre cours.");
+        }
+        if (EnrollmentService.hasEnded(course)) {
+            throw new IllegalStateException(EnrollmentService.COURSE_ENDED_MESSAGE);
+        }
+        if (enrollmentRepository.existsByStudentIdAndCourseIdAndStatusIn(student.getId(), courseId, ENROLLED_STATUSES)) {
+            throw new IllegalStateException("Vous êtes déjà inscrit à ce cours.");
+        }
+        if (waitlistEntryRepository.existsByCourseIdAndStudentId(courseId, student.getId())) {
+            throw new IllegalStateException("Vous êtes déjà sur la liste d'attente de ce cours.");
+        }
+        if (seatHoldService.hasOffer(courseId, student.getId())) {
+            throw new IllegalStateException("Une place vous est déjà réservée pour ce cours : finalisez votre inscription.");
+        }
+        // Une place libre mais promise à la file (promotion en cours) ne permet pas l'inscription directe
+        if (!EnrollmentService.isFull(course) && !waitlistEntryRepository.existsByCourseId(courseId)) {
+            throw new IllegalStateException("Des places sont disponibles : inscrivez-vous directement.");
+        }
+
+        WaitlistEntry entry = waitlistEntryRepository.saveAndFlush(WaitlistEntry.builder()
+                .course(course)
+                .student(student)
+                .build());
+        return toPositionResponse(courseId, entry);
+    }
+
+    @Transactional
+    public void leave(Long courseId, User student) {
+        if (waitlistEntryRepository.deleteByCourseIdAndStudentId(courseId, student.getId()) == 0) {
+            throw new EntityNotFoundException("Vous n'êtes pas sur la liste d'attente de ce cours.");
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public WaitlistPositionResponse getPosition(Long courseId, User student) {
+        WaitlistEntry entry = waitlistEntryRepository.findByCourseIdAndStudentId(courseId, student.getId())
+                .orElseThrow(() -> new EntityNotFoundException("Vous n'êtes pas sur la liste d'attente de ce cours."));
+        return toPositionResponse(courseId, entry);
+    }
+
+    private WaitlistPositionResponse toPositionResponse(Long courseId, WaitlistEntry entry) {
+        return new WaitlistPositionResponse(
+                courseId,
+                waitlistEntryRepository.findPosition(entry.getId()),
+                waitlistEntryRepository.countByCourseId(courseId)
+        );
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSeatReleased(SeatHoldService.SeatReleased event) {
+        promote(event.courseId());
+    }
+
+    // Filet de sécurité : événements perdus (arrêt d'une instance) et capacités augmentées par le formateur
+    @Scheduled(fixedDelayString = "${courses.waitlist.sweep-interval:1m}",
+            initialDelayString = "${courses.waitlist.sweep-interval:1m}")
+    public void promoteAll() {
+        waitlistEntryRepository.findCourseIdsWithFreeSeatsAndWaiters(LocalDateTime.now()).forEach(this::promote);
+    }
+
+    /**
+     * Promeut les premiers élèves de la file tant que le cours a des places libres. Appelé après le commit
+     * qui a libéré la place : une erreur est journalisée sans remonter à l'appelant.
+     */
+    public void promote(Long courseId) {
+        try {
+            List<Promotion> promoted = transactionTemplate.execute(status -> promoteInTransaction(courseId));
+            if (promoted == null) {
+                return;
+            }
+            // Après le commit : l'élève notifié trouve sa place en base
+            promoted.forEach(promotion -> messagingTemplate.convertAndSendToUser(
+                    promotion.email(), "/queue/waitlist", promotion.message()));
+            promotions.increment(promoted.size());
+        } catch (RuntimeException e) {
+            log.error("Échec de la promotion depuis la liste d'attente du cours {}", courseId, e);
+        }
+    }
+
+    private List<Promotion> promoteInTransaction(Long courseId) {
+        List<Promotion> promoted = new ArrayList<>();
+        while (promoted.size() < properties.getPromotionBatchSize()) {
+            // Tête de file verrouillée : deux instances qui promeuvent en même temps prennent des élèves différents
+            Optional<WaitlistEntry> head = waitlistEntryRepository.lockHead(courseId);
+            if (head.isEmpty()) {
+                break;
+            }
+            WaitlistEntry entry = head.get();
+            User student = entry.getStudent();
+            Course course = entry.getCourse();
+
+            boolean alreadyServed = enrollmentRepository.existsByStudentIdAndCourseIdAndStatusIn(student.getId(), courseId, ENROLLED_STATUSES)
+                    || seatHoldService.hasOffer(courseId, student.getId());
+            if (!alreadyServed) {
+                Optional<SeatHold> offer = seatHoldService.offer(course, student, properties.getOfferTtl());
+                if (offer.isEmpty()) {
+                    // Plus de place libre : l'élève garde son rang
+                    break;
+                }
+                LocalDateTime offerExpiresAt = offer.get().getExpiresAt();
+                emailService.sendWaitlistOfferEmail(student, course, offerExpiresAt);
+                promoted.add(new Promotion(student.getEmail(),
+                        new WaitlistOfferMessage(courseId, course.getTitle(), offerExpiresAt)));
+            }
+            waitlistEntryRepository.delete(entry);
+            waitlistEntryRepository.flush();
+        }
+        if (!promoted.isEmpty()) {
+            log.info("Liste d'attente du cours {} : {} élève(s) promu(s)", courseId, promoted.size());
+        }
+        return promoted;
+    }
+
+    private record Promotion(String email, WaitlistOfferMessage message) {
+    }
+}
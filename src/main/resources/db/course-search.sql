@@ -0,0 +1,58 @@
+-- Index de recherche des cours (exécuté à chaque démarrage, après la mise à jour du schéma par Hibernate).
+-- search_vector : tsvector pondéré (titre A, ville et formateur B, description C) pour la recherche plein texte.
+-- search_text   : titre, ville, nom du formateur et description en minuscules, pour la recherche par trigrammes
+--                 (mots partiels).
+-- Le script est idempotent.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS search_vector tsvector;
+ALTER TABLE courses ADD COLUMN IF NOT EXISTS search_text text;
+
+CREATE OR REPLACE FUNCTION courses_search_index_update() RETURNS trigger AS $$
+DECLARE
+    teacher_name text;
+BEGIN
+    SELECT coalesce(u.first_name, '') || ' ' || coalesce(u.last_name, '')
+    INTO teacher_name
+    FROM users u
+    WHERE u.id = NEW.teacher_id;
+
+    NEW.search_vector :=
+            setweight(to_tsvector('french', coalesce(NEW.title, '')), 'A') ||
+            setweight(to_tsvector('french', coalesce(NEW.city, '') || ' ' || coalesce(teacher_name, '')), 'B') ||
+            setweight(to_tsvector('french', coalesce(NEW.description, '')), 'C');
+    NEW.search_text := lower(coalesce(NEW.title, '') || ' ' || coalesce(NEW.city, '') || ' ' || coalesce(teacher_name, '')
+        || ' ' || coalesce(NEW.description, ''));
+    RETURN NEW;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS courses_search_index ON courses;
+CREATE TRIGGER courses_search_index
+    BEFORE INSERT OR UPDATE OF title, description, city, teacher_id
+    ON courses
+    FOR EACH ROW
+EXECUTE FUNCTION courses_search_index_update();
+
+-- Un formateur renommé : on ré-indexe ses cours (l'UPDATE de teacher_id déclenche le trigger ci-dessus)
+CREATE OR REPLACE FUNCTION users_reindex_courses() RETURNS trigger AS $$
+BEGIN
+    UPDATE courses SET teacher_id = teacher_id WHERE teacher_id = NEW.id;
+    RETURN NULL;
+END
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS users_reindex_courses ON users;
+CREATE TRIGGER users_reindex_courses
+    AFTER UPDATE OF first_name, last_name
+    ON users
+    FOR EACH ROW
+    WHEN (OLD.first_name IS DISTINCT FROM NEW.first_name OR OLD.last_name IS DISTINCT FROM NEW.last_name)
+EXECUTE FUNCTION users_reindex_courses();
+
+-- Rattrapage des cours créés avant l'ajout des colonnes
+UPDATE courses SET teacher_id = teacher_id WHERE search_vector IS NULL;
+
+CREATE INDEX IF NOT EXISTS idx_courses_search_vector ON courses USING gin (search_vector);
+CREATE INDEX IF NOT EXISTS idx_courses_search_text_trgm ON courses USING gin (search_text gin_trgm_ops);
@@ -0,0 +1,7 @@
+-- Inscriptions ACTIVE par cours : la clôture des cours terminés (EnrollmentCompletionService) part de
+-- ce petit ensemble plutôt que de tous les cours passés. L'index reste petit puisque les inscriptions
+-- quittent l'état ACTIVE à la fin du cours. Idempotent.
+
+CREATE INDEX IF NOT EXISTS idx_enrollments_active_course
+    ON enrollments (course_id)
+    WHERE status = 'ACTIVE';
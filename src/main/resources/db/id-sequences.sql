@@ -0,0 +1,52 @@
+-- Migration des identifiants IDENTITY vers les séquences Hibernate (allocationSize = 50, optimiseur pooled).
+-- Exécuté après la mise à jour du schéma par Hibernate, qui crée les séquences <table>_seq.
+-- Pour chaque table : retire la génération IDENTITY de la colonne id (les ids viennent désormais de
+-- Hibernate), puis place la séquence au-delà du plus grand id existant. Ne recule jamais une séquence :
+-- idempotent, peut être rejoué à chaque démarrage.
+-- Avec l'optimiseur pooled, nextval() = v réserve les ids v-49..v : setval(seq, max(id)) suffit.
+
+DO $$
+DECLARE
+    entry record;
+    max_id bigint;
+    sequence_value bigint;
+    sequence_called boolean;
+BEGIN
+    FOR entry IN
+        SELECT * FROM (VALUES
+            ('users', 'users_seq'),
+            ('courses', 'courses_seq'),
+            ('enrollments', 'enrollments_seq'),
+            ('payments', 'payments_seq'),
+            ('conversation', 'conversation_seq'),
+            ('chat_message', 'chat_message_seq'),
+            ('email_verification_tokens', 'email_verification_tokens_seq'),
+            ('refresh_tokens', 'refresh_tokens_seq'),
+            ('revoked_access_tokens', 'revoked_access_tokens_seq'),
+            ('email_outbox', 'email_outbox_seq')
+        ) AS mapping (table_name, sequence_name)
+    LOOP
+        IF to_regclass(entry.table_name) IS NULL OR to_regclass(entry.sequence_name) IS NULL THEN
+            CONTINUE;
+        END IF;
+
+        -- Vérification préalable : ALTER TABLE prendrait un verrou exclusif même sans rien changer
+        IF EXISTS (SELECT 1 FROM information_schema.columns
+                   WHERE table_schema = current_schema()
+                     AND table_name = entry.table_name
+                     AND column_name = 'id'
+                     AND is_identity = 'YES') THEN
+            EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', entry.table_name);
+        END IF;
+
+        EXECUTE format('SELECT COALESCE(max(id), 0) FROM %I', entry.table_name) INTO max_id;
+        EXECUTE format('SELECT last_value, is_called FROM %I', entry.sequence_name) INTO sequence_value, sequence_called;
+        -- Séquence jamais appelée : aucun id n'a encore été réservé
+        IF NOT sequence_called THEN
+            sequence_value := 0;
+        END IF;
+        IF max_id > sequence_value THEN
+            PERFORM setval(entry.sequence_name, max_id);
+        END IF;
+    END LOOP;
+END $$;
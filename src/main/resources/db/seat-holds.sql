@@ -0,0 +1,14 @@
+-- Une place retenue peut exister sans paiement (proposée à un élève promu de la liste d'attente) :
+-- la colonne a pu être créée NOT NULL par une version antérieure de l'entité. Idempotent.
+
+DO $$
+BEGIN
+    -- Vérification préalable : ALTER TABLE prendrait un verrou exclusif même sans rien changer
+    IF EXISTS (SELECT 1 FROM information_schema.columns
+               WHERE table_schema = current_schema()
+                 AND table_name = 'seat_holds'
+                 AND column_name = 'payment_id'
+                 AND is_nullable = 'NO') THEN
+        ALTER TABLE seat_holds ALTER COLUMN payment_id DROP NOT NULL;
+    END IF;
+END $$;
@@ -0,0 +1,75 @@
+package com.homework.backend.services;
+
+import com.homework.backend.models.Course;
+import com.homework.backend.models.EnrollmentStatus;
+import com.homework.backend.models.Role;
+import com.homework.backend.models.User;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Des centaines d'inscriptions simultanées sur un même cours : le nombre d'inscrits ne doit jamais
+ * dépasser la capacité, et le compteur doit rester égal au nombre d'inscriptions ACTIVE.
+ */
+@TestPropertySource(properties = "spring.datasource.hikari.maximum-pool-size=32")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConcurrentEnrollmentCapacityTest extends EnrollmentJpaTestSupport {
+
+    private static final int SEATS = 25;
+    private static final int STUDENTS = 400;
+    private static final int THREADS = 64;
+
+    @Test
+    void simultaneousSignUpsFillExactlyTheCapacityAndRejectTheRestAsFull() throws Exception {
+        User teacher = userRepository.save(user("teacher", Role.TEACHER));
+        Course course = saveCourse("Atelier cuisine", teacher, SEATS, LocalDateTime.now().plusDays(7));
+        List<User> students = userRepository.saveAll(IntStream.range(0, STUDENTS)
+                .mapToObj(i -> user("student" + i, Role.STUDENT))
+                .toList());
+
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger enrolled = new AtomicInteger();
+        AtomicInteger rejectedAsFull = new AtomicInteger();
+        List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (User student : students) {
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        enrollmentService.createEnrollment(course.getId(), student);
+                        enrolled.incrementAndGet();
+                    } catch (IllegalStateException e) {
+                        rejectedAsFull.incrementAndGet();
+                    } catch (Throwable t) {
+                        unexpected.add(t);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertThat(unexpected).isEmpty();
+        assertThat(enrolled).hasValue(SEATS);
+        assertThat(rejectedAsFull).hasValue(STUDENTS - SEATS);
+        assertThat(enrollmentRepository.countByCourseIdAndStatusIn(course.getId(), List.of(EnrollmentStatus.ACTIVE)))
+                .isEqualTo(SEATS);
+        assertThat(courseRepository.findById(course.getId()).orElseThrow().getEnrolledStudentsCount())
+                .isEqualTo(SEATS);
+    }
+}
@@ -0,0 +1,130 @@
+package com.homework.backend.services;
+
+import com.homework.backend.models.Course;
+import com.homework.backend.models.Role;
+import com.homework.backend.models.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compteurs de places retenues sous concurrence : tryHoldSeat ne dépasse jamais la capacité,
+ * convertHeldSeat et releaseHeldSeats ne font jamais passer heldSeatCount sous zéro.
+ */
+@TestPropertySource(properties = "spring.datasource.hikari.maximum-pool-size=32")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ConcurrentSeatHoldCounterTest extends EnrollmentJpaTestSupport {
+
+    private static final int SEATS = 10;
+    private static final int ATTEMPTS = 200;
+    private static final int THREADS = 32;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private Course course;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        User teacher = userRepository.save(user("teacher-" + System.nanoTime(), Role.TEACHER));
+        course = saveCourse("Atelier poterie", teacher, SEATS, LocalDateTime.now().plusDays(7));
+    }
+
+    @Test
+    void simultaneousHoldsNeverExceedTheFreeSeats() throws Exception {
+        inTransaction(() -> courseRepository.tryReserveSeat(course.getId()));
+        inTransaction(() -> courseRepository.tryReserveSeat(course.getId()));
+
+        int held = runConcurrently(ATTEMPTS, () -> courseRepository.tryHoldSeat(course.getId()));
+
+        assertThat(held).isEqualTo(SEATS - 2);
+        assertCounters(2, SEATS - 2);
+    }
+
+    @Test
+    void simultaneousConversionsAndReleasesNeverDriveHeldSeatsBelowZero() throws Exception {
+        assertThat(runConcurrently(SEATS, () -> courseRepository.tryHoldSeat(course.getId()))).isEqualTo(SEATS);
+
+        // Une conversion et une libération par place retenue : la moitié des demandes arrive trop tard
+        AtomicInteger converted = new AtomicInteger();
+        List<IntSupplier> updates = new ArrayList<>();
+        for (int i = 0; i < SEATS; i++) {
+            updates.add(() -> converted.addAndGet(courseRepository.convertHeldSeat(course.getId())));
+            updates.add(() -> courseRepository.releaseHeldSeats(course.getId(), 1));
+        }
+        runConcurrently(updates);
+
+        assertThat(converted.get()).isBetween(0, SEATS);
+        assertCounters(converted.get(), 0);
+    }
+
+    @Test
+    void releasingMoreSeatsThanHeldStopsAtZero() {
+        inTransaction(() -> courseRepository.tryHoldSeat(course.getId()));
+        inTransaction(() -> courseRepository.tryHoldSeat(course.getId()));
+
+        inTransaction(() -> courseRepository.releaseHeldSeats(course.getId(), 5));
+
+        assertCounters(0, 0);
+        assertThat(inTransaction(() -> courseRepository.convertHeldSeat(course.getId()))).isZero();
+        assertCounters(0, 0);
+    }
+
+    private void assertCounters(int enrolled, int held) {
+        Course reloaded = courseRepository.findById(course.getId()).orElseThrow();
+        assertThat(reloaded.getEnrolledStudentsCount()).isEqualTo(enrolled);
+        assertThat(reloaded.getHeldSeatCount()).isEqualTo(held);
+    }
+
+    private int inTransaction(IntSupplier update) {
+        return transactionTemplate.execute(status -> update.getAsInt());
+    }
+
+    private int runConcurrently(int count, IntSupplier update) throws Exception {
+        return runConcurrently(Collections.nCopies(count, update));
+    }
+
+    // Lance toutes les mises à jour en même temps, chacune dans sa transaction ; renvoie le nombre de lignes modifiées
+    private int runConcurrently(List<IntSupplier> updates) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger updated = new AtomicInteger();
+        List<Throwable> unexpected = Collections.synchronizedList(new ArrayList<>());
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            for (IntSupplier update : updates) {
+                executor.submit(() -> {
+                    start.await();
+                    try {
+                        updated.addAndGet(inTransaction(update));
+                    } catch (Throwable t) {
+                        unexpected.add(t);
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+        }
+
+        assertThat(unexpected).isEmpty();
+        return updated.get();
+    }
+}
@@ -0,0 +1,92 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.CourseSuggestProperties;
+import com.homework.backend.dto.CourseSuggestion;
+import com.homework.backend.dto.CourseSuggestionSource;
+import com.homework.backend.repositories.CourseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.mockito.Mockito;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Latence d'une recherche dans l'index d'auto-complétion (objectif : p99 sous 1 ms), pour un préfixe
+ * très courant et un préfixe sélectif, sur un catalogue synthétique. Mode SampleTime : JMH affiche p99.
+ * Lancement : exécuter {@link #main(String[])} depuis l'IDE, ou
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.homework.backend.services.CourseSuggestionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CourseSuggestionBenchmark {
+
+    private static final List<String> WORDS = List.of("atelier", "cours", "initiation", "piano", "peinture", "pâtisserie",
+            "poterie", "yoga", "guitare", "photographie", "cuisine", "couture", "danse", "dessin", "céramique",
+            "aquarelle", "théâtre", "chant", "sculpture", "menuiserie", "débutant", "avancé", "enfants", "adultes");
+    private static final List<String> CITIES = List.of("Paris", "Lyon", "Marseille", "Lille", "Nantes", "Bordeaux",
+            "Toulouse", "Nice", "Rennes", "Strasbourg", "Montpellier", "Grenoble");
+    private static final List<String> NAMES = List.of("Martin", "Bernard", "Dubois", "Thomas", "Robert", "Richard",
+            "Petit", "Durand", "Leroy", "Moreau", "Simon", "Laurent", "Lefebvre", "Michel", "Garcia", "David");
+
+    @Param("20000")
+    private int courses;
+
+    private CourseSuggestionIndex index;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<CourseSuggestionSource> sources = IntStream.range(0, courses)
+                .mapToObj(i -> new CourseSuggestionSource((long) i,
+                        pick(random, WORDS) + " " + pick(random, WORDS) + " " + pick(random, WORDS) + " " + i % 500,
+                        pick(random, CITIES),
+                        pick(random, NAMES),
+                        pick(random, NAMES)))
+                .toList();
+
+        CourseRepository courseRepository = Mockito.mock(CourseRepository.class);
+        Mockito.when(courseRepository.findSuggestionSources()).thenReturn(sources);
+        index = new CourseSuggestionIndex(courseRepository, new CourseSuggestProperties(), new SimpleMeterRegistry());
+        index.rebuild();
+    }
+
+    @Benchmark
+    public List<CourseSuggestion> commonPrefix() {
+        return index.suggest("pa", null);
+    }
+
+    @Benchmark
+    public List<CourseSuggestion> selectivePrefix() {
+        return index.suggest("photographie ch", null);
+    }
+
+    private static String pick(Random random, List<String> values) {
+        return values.get(random.nextInt(values.size()));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CourseSuggestionBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
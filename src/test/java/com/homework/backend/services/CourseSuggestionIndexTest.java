@@ -0,0 +1,116 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.CourseSuggestProperties;
+import com.homework.backend.dto.CourseSuggestion;
+import com.homework.backend.dto.CourseSuggestionSource;
+import com.homework.backend.repositories.CourseRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Index d'auto-complétion, hors base et hors transaction : les écritures sont appliquées immédiatement.
+ */
+class CourseSuggestionIndexTest {
+
+    private CourseRepository courseRepository;
+    private CourseSuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository = mock(CourseRepository.class);
+        when(courseRepository.findSuggestionSources()).thenReturn(List.of());
+        index = new CourseSuggestionIndex(courseRepository, new CourseSuggestProperties(), new SimpleMeterRegistry());
+    }
+
+    @Test
+    void normalizeLowercasesStripsAccentsAndCollapsesSeparators() {
+        assertThat(CourseSuggestionIndex.normalize("  Pâtisserie — Crème-Brûlée ")).isEqualTo("patisserie creme brulee");
+        assertThat(CourseSuggestionIndex.normalize("ÉCOLE d'Été")).isEqualTo("ecole d ete");
+        assertThat(CourseSuggestionIndex.normalize(null)).isEmpty();
+    }
+
+    @Test
+    void prefixMatchesAnyWordOfTheTermIgnoringAccents() {
+        index.index(source(1L, "Cours de Piano débutant", "Montréal", "Hélène", "Dupré"));
+
+        assertThat(labels(index.suggest("pia", null))).containsExactly("Cours de Piano débutant");
+        assertThat(labels(index.suggest("DEBU", null))).containsExactly("Cours de Piano débutant");
+        assertThat(labels(index.suggest("montr", null))).containsExactly("Montréal");
+        assertThat(labels(index.suggest("dupre", null))).containsExactly("Hélène Dupré");
+        // Les suffixes commencent par un mot : pas de correspondance au milieu d'un mot
+        assertThat(index.suggest("ano", null)).isEmpty();
+        // En dessous de courses.suggest.min-prefix-length
+        assertThat(index.suggest("p", null)).isEmpty();
+    }
+
+    @Test
+    void termRepeatingAWordIsSuggestedOnce() {
+        index.index(source(1L, "Piano piano", "Lyon", "Anne", "Petit"));
+
+        assertThat(index.suggest("piano", null))
+                .singleElement()
+                .satisfies(suggestion -> assertThat(suggestion.courseCount()).isEqualTo(1));
+    }
+
+    @Test
+    void mostPopularTermsWinEvenWhenAlphabeticallyLast() {
+        // 500 titres rares, tous avant "paris" dans l'ordre alphabétique
+        IntStream.range(0, 500).forEach(i -> index.index(source((long) i, "Pa" + String.format("%03d", i), "Lille", "Anne", "Petit")));
+        IntStream.range(500, 540).forEach(i -> index.index(source((long) i, "Yoga", "Paris", "Marc", "Durand")));
+
+        List<CourseSuggestion> suggestions = index.suggest("pa", 3);
+
+        assertThat(suggestions).hasSize(3);
+        assertThat(suggestions.getFirst())
+                .isEqualTo(new CourseSuggestion("Paris", CourseSuggestion.Kind.CITY, 40));
+    }
+
+    @Test
+    void removingAndRenamingCoursesUpdatesCountsAndRanking() {
+        index.index(source(1L, "Guitare", "Nantes", "Anne", "Petit"));
+        index.index(source(2L, "Guitare", "Nantes", "Anne", "Petit"));
+        index.index(source(3L, "Gravure", "Nantes", "Anne", "Petit"));
+
+        assertThat(index.suggest("gu", null)).containsExactly(new CourseSuggestion("Guitare", CourseSuggestion.Kind.TITLE, 2));
+
+        index.remove(1L);
+        index.index(source(2L, "Gravure sur bois", "Nantes", "Anne", "Petit"));
+
+        assertThat(index.suggest("gu", null)).isEmpty();
+        assertThat(labels(index.suggest("gra", null))).containsExactly("Gravure", "Gravure sur bois");
+        assertThat(labels(index.suggest("bois", null))).containsExactly("Gravure sur bois");
+    }
+
+    @Test
+    void writeCommittedDuringRebuildIsNotLost() {
+        // Le cours 2 est créé pendant la lecture des cours : absent du résultat de la requête
+        when(courseRepository.findSuggestionSources()).thenAnswer(invocation -> {
+            index.index(source(2L, "Sculpture", "Nice", "Paul", "Morel"));
+            return List.of(source(1L, "Peinture", "Nice", "Paul", "Morel"));
+        });
+
+        index.rebuild();
+
+        assertThat(labels(index.suggest("pein", null))).containsExactly("Peinture");
+        assertThat(labels(index.suggest("scul", null))).containsExactly("Sculpture");
+        assertThat(index.suggest("nice", null))
+                .singleElement()
+                .satisfies(suggestion -> assertThat(suggestion.courseCount()).isEqualTo(2));
+    }
+
+    private static CourseSuggestionSource source(Long id, String title, String city, String firstName, String lastName) {
+        return new CourseSuggestionSource(id, title, city, firstName, lastName);
+    }
+
+    private static List<String> labels(List<CourseSuggestion> suggestions) {
+        return suggestions.stream().map(CourseSuggestion::label).toList();
+    }
+}
@@ -0,0 +1,100 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.FrontendProperties;
+import com.homework.backend.models.Course;
+import com.homework.backend.models.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.text.NumberFormat;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare le rendu historique (String.format + NumberFormat créé à chaque appel)
+ * au rendu par templates précompilés de {@link EmailService}.
+ * Lancement : exécuter {@link #main(String[])} depuis l'IDE, ou
+ * mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.homework.backend.services.EmailRenderingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EmailRenderingBenchmark {
+
+    private static final DateTimeFormatter COURSE_DATE_FORMAT = DateTimeFormatter.ofPattern("EEEE d MMMM yyyy 'à' HH'h'mm", Locale.FRENCH);
+
+    private EmailService emailService;
+    private User student;
+    private Course course;
+
+    @Setup
+    public void setUp() {
+        FrontendProperties frontendProperties = new FrontendProperties();
+        frontendProperties.setUrl("http://localhost:5173");
+        emailService = new EmailService(null, frontendProperties, new EmailTemplateRegistry());
+
+        User teacher = User.builder().firstName("Claire").lastName("Martin").build();
+        student = User.builder().firstName("Lucas").lastName("Bernard").email("lucas@example.com").build();
+        course = Course.builder()
+                .title("Initiation à la céramique")
+                .city("Lyon")
+                .duration(120)
+                .price(new BigDecimal("45.00"))
+                .courseDateTime(LocalDateTime.of(2025, 11, 15, 14, 30))
+                .teacher(teacher)
+                .build();
+    }
+
+    @Benchmark
+    public String legacyStringFormat() {
+        return "Confirmation d'inscription - " + course.getTitle() + String.format(
+                "Bonjour %s,%n%n" +
+                        "Votre inscription au cours \"%s\" a bien été confirmée.%n%n" +
+                        "Détails du cours :%n" +
+                        "- Date : %s%n" +
+                        "- Ville : %s%n" +
+                        "- Durée : %s%n" +
+                        "- Formateur : %s %s%n" +
+                        "- Montant réglé : %s%n%n" +
+                        "Nous vous souhaitons un excellent cours !%n%n" +
+                        "L'équipe HomeWork",
+                Optional.ofNullable(student.getFirstName()).orElse(""),
+                Optional.ofNullable(course.getTitle()).orElse(""),
+                COURSE_DATE_FORMAT.format(course.getCourseDateTime()),
+                Optional.ofNullable(course.getCity()).orElse("à préciser"),
+                course.getDuration() + " minutes",
+                Optional.ofNullable(course.getTeacher()).map(User::getFirstName).orElse(""),
+                Optional.ofNullable(course.getTeacher()).map(User::getLastName).orElse(""),
+                NumberFormat.getCurrencyInstance(Locale.FRANCE).format(course.getPrice())
+        );
+    }
+
+    @Benchmark
+    public EmailTemplateRegistry.RenderedEmail precompiledTemplate() {
+        return emailService.buildEnrollmentConfirmationEmail(student, course);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(EmailRenderingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,77 @@
+package com.homework.backend.services;
+
+import com.homework.backend.models.Category;
+import com.homework.backend.models.Course;
+import com.homework.backend.models.Role;
+import com.homework.backend.models.User;
+import com.homework.backend.repositories.CourseRepository;
+import com.homework.backend.repositories.EnrollmentRepository;
+import com.homework.backend.repositories.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Socle des tests JPA des inscriptions : base H2 en mémoire propre à chaque contexte de test (les scripts
+ * PostgreSQL de db/ ne sont pas exécutés), {@link EnrollmentService} réel, cache des fiches et places
+ * retenues simulés. Les réglages propres à un test passent par {@code @TestPropertySource}.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.datasource.url=jdbc:h2:mem:${random.uuid};LOCK_TIMEOUT=10000;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.sql.init.mode=never",
+        "logging.level.org.hibernate.type.descriptor.sql=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(EnrollmentService.class)
+abstract class EnrollmentJpaTestSupport {
+
+    @Autowired
+    protected EnrollmentService enrollmentService;
+
+    @Autowired
+    protected CourseRepository courseRepository;
+
+    @Autowired
+    protected EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @MockitoBean
+    protected CourseDetailCache courseDetailCache;
+
+    @MockitoBean
+    protected SeatHoldService seatHoldService;
+
+    protected static User user(String name, Role role) {
+        return User.builder()
+                .firstName(name)
+                .lastName("Test")
+                .email(name + "@example.com")
+                .password("{noop}password")
+                .role(role)
+                .verifiedEmail(true)
+                .build();
+    }
+
+    protected Course saveCourse(String title, User teacher, int maxStudents, LocalDateTime courseDateTime) {
+        return courseRepository.save(Course.builder()
+                .title(title)
+                .category(Category.CUISINE)
+                .price(new BigDecimal("20.00"))
+                .city("Lyon")
+                .courseDateTime(courseDateTime)
+                .maxStudents(maxStudents)
+                .teacher(teacher)
+                .build());
+    }
+}
@@ -0,0 +1,118 @@
+package com.homework.backend.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Calcul des ticks de la roue, avancée à la main sur une horloge simulée : un tick = 10 ms, 8 cases.
+ */
+class HashedTimingWheelTest {
+
+    private static final Duration TICK = Duration.ofMillis(10);
+    private static final int WHEEL_SIZE = 8;
+
+    private long nowNanos;
+    private final List<List<String>> batches = new ArrayList<>();
+    private HashedTimingWheel<String> wheel;
+
+    @BeforeEach
+    void setUp() {
+        nowNanos = 1_000_000_000L;
+        wheel = new HashedTimingWheel<>(TICK, WHEEL_SIZE, batches::add, () -> nowNanos);
+    }
+
+    @Test
+    void deadlineIsRoundedUpToTheNextTick() {
+        advanceTo(ticks(2) + TICK.toNanos() / 2);
+        wheel.schedule("hold", TICK);
+
+        advanceTo(ticks(3));
+        assertThat(batches).isEmpty();
+        advanceTo(ticks(4));
+        assertThat(batches).containsExactly(List.of("hold"));
+        assertThat(wheel.pending()).isZero();
+    }
+
+    @Test
+    void deadlineExactlyOneWheelLengthAwayWaitsAFullRound() {
+        wheel.schedule("one-round", TICK.multipliedBy(WHEEL_SIZE));
+        wheel.schedule("two-rounds", TICK.multipliedBy(2L * WHEEL_SIZE));
+
+        // Même case que le tick courant : les deux entrées y sont sautées au tick 0
+        for (int tick = 0; tick < WHEEL_SIZE; tick++) {
+            advanceTo(ticks(tick));
+        }
+        assertThat(batches).isEmpty();
+
+        advanceTo(ticks(WHEEL_SIZE));
+        assertThat(batches).containsExactly(List.of("one-round"));
+
+        for (int tick = WHEEL_SIZE + 1; tick < 2 * WHEEL_SIZE; tick++) {
+            advanceTo(ticks(tick));
+        }
+        assertThat(batches).hasSize(1);
+
+        advanceTo(ticks(2 * WHEEL_SIZE));
+        assertThat(batches).containsExactly(List.of("one-round"), List.of("two-rounds"));
+    }
+
+    @Test
+    void negativeDelayExpiresOnTheNextTick() {
+        advanceTo(ticks(5));
+        wheel.schedule("late", Duration.ofSeconds(-30));
+
+        advanceTo(ticks(6));
+
+        assertThat(batches).containsExactly(List.of("late"));
+    }
+
+    @Test
+    void missedTicksAreCaughtUpInDeadlineOrder() {
+        wheel.schedule("a", TICK);
+        wheel.schedule("b", TICK.multipliedBy(5));
+        wheel.schedule("c", TICK.multipliedBy(5));
+        wheel.schedule("d", TICK.multipliedBy(20));
+        wheel.schedule("e", TICK.multipliedBy(40));
+
+        // Le thread de la roue a pris 30 ticks de retard : un seul passage rattrape tout ce qui est échu
+        advanceTo(ticks(30));
+
+        assertThat(batches).containsExactly(List.of("a"), List.of("b", "c"), List.of("d"));
+        assertThat(wheel.pending()).isEqualTo(1);
+
+        advanceTo(ticks(40));
+        assertThat(batches).last().isEqualTo(List.of("e"));
+        assertThat(wheel.pending()).isZero();
+    }
+
+    @Test
+    void wheelSizeIsRoundedUpToAPowerOfTwo() {
+        HashedTimingWheel<String> sixCases = new HashedTimingWheel<>(TICK, 6, batches::add, () -> nowNanos);
+        sixCases.schedule("after-one-round", TICK.multipliedBy(8));
+
+        for (int tick = 0; tick < 8; tick++) {
+            nowNanos = ticks(tick);
+            sixCases.advance();
+        }
+        assertThat(batches).isEmpty();
+
+        nowNanos = ticks(8);
+        sixCases.advance();
+        assertThat(batches).containsExactly(List.of("after-one-round"));
+    }
+
+    private long ticks(long count) {
+        return 1_000_000_000L + count * TICK.toNanos();
+    }
+
+    private void advanceTo(long nanos) {
+        nowNanos = nanos;
+        wheel.advance();
+    }
+}
@@ -0,0 +1,118 @@
+package com.homework.backend.services;
+
+import com.homework.backend.dto.EnrollmentPeriod;
+import com.homework.backend.dto.EnrollmentResponse;
+import com.homework.backend.models.Course;
+import com.homework.backend.models.Enrollment;
+import com.homework.backend.models.EnrollmentStatus;
+import com.homework.backend.models.Role;
+import com.homework.backend.models.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * GET /enrollments/my-courses : le nombre de requêtes SQL ne doit pas dépendre du nombre d'inscriptions
+ * (cours et formateur lus par jointure, pas de chargement paresseux ligne par ligne).
+ */
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.stat=WARN"
+})
+class MyCoursesListingStatementCountTest extends EnrollmentJpaTestSupport {
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+    private long lastStatementCount;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void unpagedListingIsOneStatementWhateverTheNumberOfEnrollments() {
+        User fewCoursesStudent = studentWithEnrollments("few", 3);
+        User manyCoursesStudent = studentWithEnrollments("many", 40);
+
+        Page<EnrollmentResponse> few = listEnrollments(fewCoursesStudent, null, null, 50);
+        long fewStatements = lastStatementCount;
+        Page<EnrollmentResponse> many = listEnrollments(manyCoursesStudent, null, null, 50);
+        long manyStatements = lastStatementCount;
+
+        assertThat(few.getContent()).hasSize(3);
+        assertThat(many.getContent()).hasSize(40);
+        assertThat(many.getContent()).allSatisfy(enrollment -> {
+            assertThat(enrollment.course().title()).isNotNull();
+            assertThat(enrollment.course().teacher().email()).isNotNull();
+        });
+        assertThat(manyStatements).isEqualTo(fewStatements).isEqualTo(1);
+    }
+
+    @Test
+    void partialPageAddsOneCountStatementAndFiltersKeepCourseDateOrder() {
+        User student = studentWithEnrollments("paged", 40);
+
+        Page<EnrollmentResponse> firstPage = listEnrollments(student, null, null, 10);
+        assertThat(lastStatementCount).isEqualTo(2);
+        assertThat(firstPage.getTotalElements()).isEqualTo(40);
+        assertThat(firstPage.getContent()).hasSize(10);
+
+        // Cours à J+1 .. J+40 : les 5 plus proches d'abord
+        Page<EnrollmentResponse> upcoming = listEnrollments(student, EnrollmentStatus.ACTIVE, EnrollmentPeriod.UPCOMING, 5);
+        assertThat(lastStatementCount).isEqualTo(2);
+        assertThat(upcoming.getContent())
+                .extracting(enrollment -> enrollment.course().courseDateTime())
+                .isSorted();
+
+        Page<EnrollmentResponse> past = listEnrollments(student, null, EnrollmentPeriod.PAST, 50);
+        assertThat(lastStatementCount).isEqualTo(1);
+        assertThat(past.getTotalElements()).isZero();
+    }
+
+    private Page<EnrollmentResponse> listEnrollments(User student, EnrollmentStatus status, EnrollmentPeriod period, int size) {
+        return countingStatements(() -> enrollmentService.getEnrollmentsForStudent(
+                student.getId(), status, period, PageRequest.of(0, size)));
+    }
+
+    private <T> T countingStatements(Supplier<T> action) {
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+        T result = action.get();
+        lastStatementCount = statistics.getPrepareStatementCount();
+        return result;
+    }
+
+    // Un cours et un formateur distincts par inscription : le pire cas d'un chargement ligne par ligne
+    private User studentWithEnrollments(String name, int count) {
+        User student = userRepository.save(user(name, Role.STUDENT));
+        for (int i = 0; i < count; i++) {
+            User teacher = userRepository.save(user(name + "-teacher" + i, Role.TEACHER));
+            Course course = saveCourse("Cours " + i, teacher, 10, LocalDateTime.now().plusDays(i + 1));
+            enrollmentRepository.save(Enrollment.builder()
+                    .student(student)
+                    .course(course)
+                    .status(EnrollmentStatus.ACTIVE)
+                    .build());
+        }
+        return student;
+    }
+}
@@ -0,0 +1,88 @@
+package com.homework.backend.services;
+
+import com.homework.backend.config.props.StripeProperties;
+import com.homework.backend.models.Course;
+import com.homework.backend.models.Payment;
+import com.homework.backend.models.PaymentStatus;
+import com.homework.backend.models.Role;
+import com.homework.backend.models.User;
+import com.homework.backend.repositories.PaymentRepository;
+import com.stripe.model.PaymentIntent;
+import com.stripe.param.PaymentIntentRetrieveParams;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.mockStatic;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Confirmation d'un PaymentIntent annulé côté Stripe : l'exception renvoyée à l'élève annule la transaction
+ * de confirmation, mais le statut CANCELED doit rester en base, sans quoi l'élève ne pourrait plus payer ce cours.
+ */
+@Import(PaymentService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PaymentCancellationTest extends EnrollmentJpaTestSupport {
+
+    private static final List<PaymentStatus> IN_PROGRESS = List.of(PaymentStatus.PENDING, PaymentStatus.REQUIRES_ACTION);
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean
+    private StripeProperties stripeProperties;
+
+    @Test
+    void canceledIntentIsRecordedDespiteTheRolledBackConfirmation() {
+        User teacher = userRepository.save(user("cancel-teacher", Role.TEACHER));
+        User student = userRepository.save(user("cancel-student", Role.STUDENT));
+        Course course = saveCourse("Atelier reliure", teacher, 10, LocalDateTime.now().plusDays(7));
+        Payment payment = paymentRepository.save(Payment.builder()
+                .student(student)
+                .course(course)
+                .stripePaymentIntentId("pi_canceled")
+                .amount(new BigDecimal("20.00"))
+                .platformFee(new BigDecimal("2.00"))
+                .teacherAmount(new BigDecimal("18.00"))
+                .currency("eur")
+                .status(PaymentStatus.PENDING)
+                .build());
+
+        PaymentIntent intent = mock(PaymentIntent.class);
+        when(intent.getStatus()).thenReturn("canceled");
+        try (MockedStatic<PaymentIntent> stripe = mockStatic(PaymentIntent.class)) {
+            stripe.when(() -> PaymentIntent.retrieve(eq("pi_canceled"), any(PaymentIntentRetrieveParams.class), any()))
+                    .thenReturn(intent);
+
+            assertThatThrownBy(() -> paymentService.confirmPayment("pi_canceled", student))
+                    .isInstanceOf(IllegalStateException.class)
+                    .hasMessage("Le paiement a été annulé.");
+        }
+
+        verify(seatHoldService).release(argThat(released -> released.getId().equals(payment.getId())));
+        assertThat(paymentRepository.findById(payment.getId()).orElseThrow().getStatus()).isEqualTo(PaymentStatus.CANCELED);
+        assertThat(paymentRepository.existsByCourseIdAndStudentIdAndStatusIn(course.getId(), student.getId(), IN_PROGRESS))
+                .isFalse();
+    }
+}